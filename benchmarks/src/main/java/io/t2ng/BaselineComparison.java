@@ -0,0 +1,145 @@
+package io.t2ng;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Compares JMH results written with {@code -rf csv} against stored
+ * baseline. Benchmarks are matched by name and parameters, every one
+ * slower than baseline by more than threshold is reported as regression
+ * and makes the process exit with code 1
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.csv> <results.csv> [threshold percent, 10 by default]}
+ */
+public final class BaselineComparison {
+
+  private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+  private BaselineComparison() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("baseline and results must be specified");
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+    Map<String, Score> baseline = read(args[0]);
+    Map<String, Score> results = read(args[1]);
+    int regressions = 0;
+    for (Map.Entry<String, Score> result : results.entrySet()) {
+      Score before = baseline.get(result.getKey());
+      Score after = result.getValue();
+      if (before == null) {
+        System.out.println(format("%-80s %14s %14.3f %s  new", result.getKey(), "-", after.value, after.unit));
+        continue;
+      }
+      if (!before.unit.equals(after.unit)) {
+        throw new IllegalArgumentException(format("units of %s differ: %s and %s", result.getKey(), before.unit, after.unit));
+      }
+      double change = (after.value - before.value) / before.value * 100;
+      boolean regression = after.slowerThan(before, threshold);
+      if (regression) {
+        regressions++;
+      }
+      System.out.println(format(
+        "%-80s %14.3f %14.3f %s %+8.1f%%%s",
+        result.getKey(),
+        before.value,
+        after.value,
+        after.unit,
+        change,
+        regression ? "  REGRESSION" : ""
+      ));
+    }
+    if (regressions > 0) {
+      System.out.println(format("%d benchmarks regressed by more than %.1f%%", regressions, threshold));
+      System.exit(1);
+    }
+  }
+
+  private static Map<String, Score> read(String path) throws IOException {
+    List<String> lines = Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8);
+    if (lines.isEmpty()) {
+      throw new IllegalArgumentException(format("no results in %s", path));
+    }
+    List<String> header = columns(lines.get(0));
+    int benchmark = header.indexOf("Benchmark");
+    int mode = header.indexOf("Mode");
+    int score = header.indexOf("Score");
+    int unit = header.indexOf("Unit");
+    if (benchmark < 0 || mode < 0 || score < 0 || unit < 0) {
+      throw new IllegalArgumentException(format("%s is not JMH CSV result", path));
+    }
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (String line : lines.subList(1, lines.size())) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      List<String> row = columns(line);
+      if (row.get(benchmark).contains(":")) {
+        continue;/*secondary results of profilers*/
+      }
+      StringBuilder key = new StringBuilder(row.get(benchmark));
+      for (int i = 0; i < header.size(); i++) {
+        if (header.get(i).startsWith("Param: ")) {
+          key.append(format(" %s=%s", header.get(i).substring("Param: ".length()), row.get(i)));
+        }
+      }
+      scores.put(key.toString(), new Score(row.get(mode), Double.parseDouble(row.get(score)), row.get(unit)));
+    }
+    return scores;
+  }
+
+  private static List<String> columns(String line) {
+    List<String> columns = new ArrayList<>();
+    StringBuilder column = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          column.append(c);
+          i++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (c == ',' && !quoted) {
+        columns.add(column.toString());
+        column.setLength(0);
+      } else {
+        column.append(c);
+      }
+    }
+    columns.add(column.toString());
+    return columns;
+  }
+
+  private static final class Score {
+
+    private final String mode;
+    private final double value;
+    private final String unit;
+
+    private Score(String mode, double value, String unit) {
+      this.mode = mode;
+      this.value = value;
+      this.unit = unit;
+    }
+
+    /**
+     * Time per operation grows on regression, throughput falls
+     */
+    private boolean slowerThan(Score baseline, double thresholdPercent) {
+      double change = (value - baseline.value) / baseline.value * 100;
+      return mode.equals("thrpt") ? -change > thresholdPercent : change > thresholdPercent;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composition of JavaScript module of a file: requires of included
+ * modules and wrapping of {@code thrift --gen js} output into exports
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaScriptBenchmark {
+
+  /**
+   * Approximate number of lines of Thrift compiler output
+   */
+  @Param({"1000", "10000", "100000"})
+  private int lines;
+
+  @Param({"1", "10", "50"})
+  private int includes;
+
+  private Path workspace;
+  private ThriftProject project;
+  private ThriftFile thriftFile;
+  private JavaScriptModuleTransformer transformer;
+  private String jsText;
+
+  @Setup
+  public void setUp() throws IOException {
+    int symbols = SyntheticIdl.symbolsForJavaScriptLines(lines, includes);
+    workspace = Files.createTempDirectory("t2ng-bench");
+    Path file = SyntheticIdl.workspace(workspace, includes, symbols);
+    project = ThriftProject.scan(
+      Collections.singletonList(file.toFile()),
+      Workspace.scan(workspace.toString())
+    );
+    thriftFile = project.files().get(0);
+    transformer = new JavaScriptModuleTransformer(thriftFile);
+    jsText = SyntheticIdl.javaScript(includes, includes, symbols);
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileUtils.deleteQuietly(workspace.toFile());
+  }
+
+  @Benchmark
+  public List<String> header() {
+    return transformer.header(project, "bench");
+  }
+
+  /**
+   * Wrapping of whole Thrift compiler output into exports, streamed line
+   * by line the same way as module is composed, so time grows linearly
+   * with lines of output
+   */
+  @Benchmark
+  public void transform() throws IOException {
+    try (BufferedWriter writer = new BufferedWriter(new NullWriter())) {
+      transformer.transform(new BufferedReader(new StringReader(jsText)), writer);
+    }
+  }
+}
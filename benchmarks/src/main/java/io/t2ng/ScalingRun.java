@@ -0,0 +1,201 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Runs the whole generation on synthetic workspaces of growing size with
+ * stub Thrift compiler, so scaling of the pipeline is checked without
+ * Thrift installed. Wall time, CPU time of this JVM and of compiler
+ * processes, peak heap and files per second are reported for every size,
+ * {@code ms/file} relative to the smallest workspace shows where
+ * generation stops scaling linearly
+ * <p>
+ * Usage: {@code ScalingRun [--sizes 10,100,...] [--depth n] [--fan-out n] [--structs n] [--enums n]
+ * [--services n] [--work-dir dir] [--keep] [-- generator options]}
+ */
+public final class ScalingRun {
+
+  private static final String DEFAULT_SIZES = "10,50,100,500,1000,2500,5000";
+  private static final long CLOCK_TICKS_PER_SECOND = 100;
+
+  private ScalingRun() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    int separator = Arrays.asList(args).indexOf("--");
+    String[] options = separator < 0 ? args : Arrays.copyOfRange(args, 0, separator);
+    List<String> generatorOptions = separator < 0
+      ? new ArrayList<>()
+      : new ArrayList<>(Arrays.asList(args).subList(separator + 1, args.length));
+    List<Integer> sizes = new ArrayList<>();
+    for (String size : readArgument("--sizes", options).orElse(DEFAULT_SIZES).split(",")) {
+      sizes.add(Integer.parseInt(size.trim()));
+    }
+    int depth = Integer.parseInt(readArgument("--depth", options).orElse("3"));
+    int fanOut = Integer.parseInt(readArgument("--fan-out", options).orElse("3"));
+    int structs = Integer.parseInt(readArgument("--structs", options).orElse("10"));
+    int enums = Integer.parseInt(readArgument("--enums", options).orElse("2"));
+    int services = Integer.parseInt(readArgument("--services", options).orElse("1"));
+    boolean keep = Arrays.asList(options).contains("--keep");
+    Path workDir = readArgument("--work-dir", options).isPresent()
+      ? Files.createDirectories(Paths.get(readArgument("--work-dir", options).get()))
+      : Files.createTempDirectory("t2ng-scaling");
+    Path thrift = extractStubCompiler(workDir);
+    List<String> report = new ArrayList<>();
+    report.add(format(
+      "%8s %10s %10s %10s %12s %12s %10s %10s",
+      "files", "IDL KB", "wall ms", "JVM cpu ms", "thrift cpu ms", "peak heap MB", "files/s", "ms/file"
+    ));
+    double baseMillisPerFile = 0;
+    for (int size : sizes) {
+      Path inputDir = workDir.resolve(format("idl-%d", size));
+      Path outputDir = workDir.resolve(format("out-%d", size));
+      FileUtils.deleteQuietly(inputDir.toFile());
+      FileUtils.deleteQuietly(outputDir.toFile());
+      long idlSize = new SyntheticWorkspace(size, depth, fanOut, structs, enums, services).write(inputDir);
+      List<String> generatorArgs = new ArrayList<>(Arrays.asList(
+        "-p", "syn",
+        "-i", inputDir.toString(),
+        "-s", outputDir.toString(),
+        "--thrift", thrift.toString()
+      ));
+      generatorArgs.addAll(generatorOptions);
+      Measurement measurement = measure(generatorArgs.toArray(new String[0]));
+      double millisPerFile = (double) measurement.wallMillis / size;
+      if (baseMillisPerFile == 0) {
+        baseMillisPerFile = millisPerFile;
+      }
+      report.add(format(
+        "%8d %10d %10d %10d %12s %12d %10.1f %6.2f (x%.2f)",
+        size,
+        idlSize / 1024,
+        measurement.wallMillis,
+        measurement.cpuMillis,
+        measurement.childCpuMillis < 0 ? "-" : String.valueOf(measurement.childCpuMillis),
+        measurement.peakHeapBytes / (1024 * 1024),
+        size * 1000.0 / Math.max(1, measurement.wallMillis),
+        millisPerFile,
+        millisPerFile / baseMillisPerFile
+      ));
+      if (!keep) {
+        FileUtils.deleteQuietly(inputDir.toFile());
+        FileUtils.deleteQuietly(outputDir.toFile());
+      }
+    }
+    if (!keep) {
+      FileUtils.deleteQuietly(workDir.toFile());
+    }
+    System.out.println();
+    report.forEach(System.out::println);
+  }
+
+  private static Measurement measure(String[] generatorArgs) throws Exception {
+    System.gc();
+    List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+        heapPools.add(pool);
+      }
+    }
+    long cpuBefore = processCpuNanos();
+    long childCpuBefore = childCpuMillis();
+    long started = System.nanoTime();
+    Generator.main(generatorArgs);
+    long wallNanos = System.nanoTime() - started;
+    long cpuNanos = processCpuNanos() - cpuBefore;
+    long childCpuAfter = childCpuMillis();
+    long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    return new Measurement(
+      TimeUnit.NANOSECONDS.toMillis(wallNanos),
+      TimeUnit.NANOSECONDS.toMillis(cpuNanos),
+      childCpuBefore < 0 || childCpuAfter < 0 ? -1 : childCpuAfter - childCpuBefore,
+      peakHeap
+    );
+  }
+
+  private static long processCpuNanos() {
+    java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+    }
+    return 0;
+  }
+
+  /**
+   * @return user and system time of terminated child processes, -1 unless running on Linux
+   */
+  private static long childCpuMillis() {
+    Path stat = Paths.get("/proc/self/stat");
+    if (!Files.isReadable(stat)) {
+      return -1;
+    }
+    try {
+      String content = new String(Files.readAllBytes(stat), StandardCharsets.UTF_8);
+      String[] fields = content.substring(content.lastIndexOf(')') + 2).split(" ");
+      long ticks = Long.parseLong(fields[13]) + Long.parseLong(fields[14]);/*cutime and cstime*/
+      return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+    } catch (IOException | RuntimeException e) {
+      return -1;
+    }
+  }
+
+  static Path extractStubCompiler(Path workDir) throws IOException {
+    Path thrift = workDir.resolve("thrift");
+    try (InputStream stub = ScalingRun.class.getResourceAsStream("thrift")) {
+      if (stub == null) {
+        throw new RuntimeException("can't find stub Thrift compiler");
+      }
+      Files.copy(stub, thrift, StandardCopyOption.REPLACE_EXISTING);
+    }
+    if (!thrift.toFile().setExecutable(true)) {
+      throw new RuntimeException(format("can't make %s executable", thrift));
+    }
+    return thrift;
+  }
+
+  private static Optional<String> readArgument(String key, String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (key.equals(args[i])) {
+        if (i + 1 < args.length && !args[i + 1].startsWith("-")) {
+          return Optional.of(args[i + 1]);
+        }
+        throw new IllegalArgumentException(format("missed value for parameter %s", key));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static final class Measurement {
+
+    private final long wallMillis;
+    private final long cpuMillis;
+    private final long childCpuMillis;
+    private final long peakHeapBytes;
+
+    private Measurement(long wallMillis, long cpuMillis, long childCpuMillis, long peakHeapBytes) {
+      this.wallMillis = wallMillis;
+      this.cpuMillis = cpuMillis;
+      this.childCpuMillis = childCpuMillis;
+      this.peakHeapBytes = peakHeapBytes;
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Measures cold start of generator jar, every run is a new JVM generating
+ * small synthetic workspace from scratch with stub Thrift compiler, the
+ * way a build or a container runs it. Time to first output is taken when
+ * generator prints its first line, time to exit when the process ends.
+ * Plain {@code java -jar} is compared with the same jar started with
+ * AppCDS archive built by {@code appcds} profile and with every extra
+ * JVM option set given. The first run of every variant only warms file
+ * system cache up and isn't counted
+ * <p>
+ * Usage: {@code StartupRun --jar <jar with dependencies> [--archive <t2ng.jsa>] [--runs n] [--size n]
+ * [--jvm "<options>"]... [--work-dir dir] [-- generator options]}
+ */
+public final class StartupRun {
+
+  private static final int DEFAULT_RUNS = 10;
+  private static final int DEFAULT_SIZE = 10;
+
+  private StartupRun() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    int separator = Arrays.asList(args).indexOf("--");
+    String[] options = separator < 0 ? args : Arrays.copyOfRange(args, 0, separator);
+    List<String> generatorOptions = separator < 0
+      ? new ArrayList<>()
+      : new ArrayList<>(Arrays.asList(args).subList(separator + 1, args.length));
+    String jar = readArgument("--jar", options)
+      .orElseThrow(() -> new IllegalArgumentException("jar with dependencies must be specified. please use --jar key"));
+    if (!new File(jar).isFile()) {
+      throw new IllegalArgumentException(format("can't find jar %s", jar));
+    }
+    int runs = Integer.parseInt(readArgument("--runs", options).orElse(String.valueOf(DEFAULT_RUNS)));
+    int size = Integer.parseInt(readArgument("--size", options).orElse(String.valueOf(DEFAULT_SIZE)));
+    Map<String, List<String>> variants = new LinkedHashMap<>();
+    variants.put("java -jar", Collections.emptyList());
+    Optional<String> archive = readArgument("--archive", options);
+    if (archive.isPresent()) {
+      if (!new File(archive.get()).isFile()) {
+        throw new IllegalArgumentException(format("can't find AppCDS archive %s", archive.get()));
+      }
+      variants.put("AppCDS", Arrays.asList("-Xshare:auto", format("-XX:SharedArchiveFile=%s", archive.get())));
+    }
+    for (String jvmOptions : readArguments("--jvm", options)) {
+      List<String> variant = new ArrayList<>(Arrays.asList(jvmOptions.trim().split("\\s+")));
+      archive.ifPresent(a -> variant.addAll(0, variants.get("AppCDS")));
+      variants.put(format("%s%s", archive.isPresent() ? "AppCDS " : "", jvmOptions.trim()), variant);
+    }
+    Path workDir = readArgument("--work-dir", options).isPresent()
+      ? Files.createDirectories(Paths.get(readArgument("--work-dir", options).get()))
+      : Files.createTempDirectory("t2ng-startup");
+    Path thrift = ScalingRun.extractStubCompiler(workDir);
+    Path inputDir = workDir.resolve("idl");
+    Path outputDir = workDir.resolve("out");
+    FileUtils.deleteQuietly(inputDir.toFile());
+    new SyntheticWorkspace(size, 2, 2, 10, 2, 1).write(inputDir);
+    List<String> report = new ArrayList<>();
+    report.add(format(
+      "%-48s %16s %16s %16s %16s",
+      "variant", "first output ms", "min", "exit ms", "min"
+    ));
+    for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+      List<String> command = new ArrayList<>();
+      command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+      command.addAll(variant.getValue());
+      command.addAll(Arrays.asList(
+        "-jar", jar,
+        "-p", "syn",
+        "-i", inputDir.toString(),
+        "-s", outputDir.toString(),
+        "--thrift", thrift.toString()
+      ));
+      command.addAll(generatorOptions);
+      long[] firstOutput = new long[runs];
+      long[] exit = new long[runs];
+      for (int run = -1; run < runs; run++) {
+        FileUtils.deleteQuietly(outputDir.toFile());
+        long[] measurement = launch(command);
+        if (run >= 0) {
+          firstOutput[run] = measurement[0];
+          exit[run] = measurement[1];
+        }
+      }
+      Arrays.sort(firstOutput);
+      Arrays.sort(exit);
+      report.add(format(
+        "%-48s %16.1f %16.1f %16.1f %16.1f",
+        variant.getKey(),
+        median(firstOutput),
+        firstOutput[0] / 1e6,
+        median(exit),
+        exit[0] / 1e6
+      ));
+    }
+    if (!readArgument("--work-dir", options).isPresent()) {
+      FileUtils.deleteQuietly(workDir.toFile());
+    }
+    System.out.println(format("%d runs of %d Thrift files, %s", runs, size, jar));
+    report.forEach(System.out::println);
+  }
+
+  /**
+   * @return nanoseconds to the first line printed and to exit of the process
+   */
+  private static long[] launch(List<String> command) throws Exception {
+    long started = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    long firstOutput = -1;
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(
+      new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)
+    )) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (firstOutput < 0) {
+          firstOutput = System.nanoTime() - started;
+        }
+        lines.add(line);
+      }
+    }
+    if (!process.waitFor(1, TimeUnit.MINUTES)) {
+      process.destroyForcibly();
+      throw new RuntimeException(format("%s didn't finish in a minute", String.join(" ", command)));
+    }
+    long exit = System.nanoTime() - started;
+    if (process.exitValue() != 0) {
+      lines.forEach(System.err::println);
+      throw new RuntimeException(format("%s exited with code %d", String.join(" ", command), process.exitValue()));
+    }
+    return new long[]{firstOutput < 0 ? exit : firstOutput, exit};
+  }
+
+  private static double median(long[] sorted) {
+    int middle = sorted.length / 2;
+    return (sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0) / 1e6;
+  }
+
+  private static Optional<String> readArgument(String key, String[] args) {
+    List<String> values = readArguments(key, args);
+    return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+  }
+
+  /**
+   * @return values of every occurrence of the key, values of {@code --jvm} start with {@code -} as JVM options do
+   */
+  private static List<String> readArguments(String key, String[] args) {
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if (key.equals(args[i])) {
+        if (i + 1 < args.length && (!args[i + 1].startsWith("-") || key.equals("--jvm"))) {
+          values.add(args[i + 1]);
+          i++;
+          continue;
+        }
+        throw new IllegalArgumentException(format("missed value for parameter %s", key));
+      }
+    }
+    return values;
+  }
+}
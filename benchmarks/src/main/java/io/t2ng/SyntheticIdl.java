@@ -0,0 +1,262 @@
+package io.t2ng;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.lang.String.join;
+import static java.util.Collections.singletonList;
+
+/**
+ * Builds Thrift files and outputs of {@code thrift --gen js:ts} shaped
+ * like the ones of TypeScript regression corpus, scaled by number of
+ * included files and number of structs declared in the file. File
+ * {@code m<i>} has namespace {@code syn.m<i>}, includes files
+ * {@code m0 .. m<includes - 1>} and every struct of it references
+ * a struct and an enum of every include
+ */
+final class SyntheticIdl {
+
+  private SyntheticIdl() {
+  }
+
+  /**
+   * @return number of structs making {@code .d.ts} of the file about given number of lines
+   */
+  static int symbolsForDeclarationLines(int lines, int includes) {
+    return Math.max(1, lines / (2 * includes + 7));
+  }
+
+  /**
+   * @return number of structs making {@code .js} of the file about given number of lines
+   */
+  static int symbolsForJavaScriptLines(int lines, int includes) {
+    return Math.max(1, lines / (4 * (2 * includes + 3) + 16));
+  }
+
+  static String thrift(int index, int includes, int symbols) {
+    List<String> lines = new ArrayList<>();
+    lines.add(format("namespace java io.syn.m%d", index));
+    lines.add(format("namespace js syn.m%d", index));
+    lines.add("");
+    for (int k = 0; k < includes; k++) {
+      lines.add(format("include \"m%d.thrift\"", k));
+    }
+    lines.add("");
+    lines.add(format("enum E%d {", index));
+    lines.add("  A,");
+    lines.add("  B = 4,");
+    lines.add("  C");
+    lines.add("}");
+    for (int j = 0; j < symbols; j++) {
+      lines.add("");
+      lines.add(format("struct S%d_%d {", index, j));
+      lines.add("  1: i64 id,");
+      lines.add("  2: string name,");
+      for (int k = 0; k < includes; k++) {
+        lines.add(format("  %d: m%d.S%d_0 ref%d,", 10 + 2 * k, k, k, k));
+        lines.add(format("  %d: list<m%d.E%d> es%d,", 11 + 2 * k, k, k, k));
+      }
+      lines.add(format("  3: E%d kind", index));
+      lines.add("}");
+    }
+    lines.add("");
+    lines.add(format("exception X%d {", index));
+    lines.add("  1: string message");
+    lines.add("}");
+    lines.add("");
+    lines.add(format("service Svc%d {", index));
+    lines.add(format("  S%d_0 get(1: i64 id) throws (1: X%d x)", index, index));
+    for (int k = 0; k < includes; k++) {
+      lines.add(format("  list<S%d_0> by%d(1: m%d.S%d_0 key, 2: map<string, m%d.E%d> m)", index, k, k, k, k, k));
+    }
+    lines.add("}");
+    return join("\n", lines) + "\n";
+  }
+
+  /**
+   * Writes included files with a single struct each and the file including them
+   *
+   * @return the including file
+   */
+  static Path workspace(Path dir, int includes, int symbols) throws IOException {
+    for (int k = 0; k < includes; k++) {
+      write(dir.resolve(format("m%d.thrift", k)), thrift(k, 0, 1));
+    }
+    Path file = dir.resolve(format("m%d.thrift", includes));
+    write(file, thrift(includes, includes, symbols));
+    return file;
+  }
+
+  /**
+   * @return declarations of {@code m<index>_types.d.ts}
+   */
+  static List<String> typeDeclarations(int index, int includes, int symbols) {
+    List<String> lines = header();
+    lines.add("");
+    lines.add(format("declare module syn.m%d {", index));
+    lines.add(format("  enum E%d {", index));
+    lines.add("    A = 0,");
+    lines.add("    B = 4,");
+    lines.add("    C = 5,");
+    lines.add("  }");
+    for (int j = 0; j < symbols; j++) {
+      List<String> fields = new ArrayList<>();
+      fields.add("id: number;");
+      fields.add("name: string;");
+      for (int k = 0; k < includes; k++) {
+        fields.add(format("ref%d: syn.m%d.S%d_0;", k, k, k));
+        fields.add(format("es%d: syn.m%d.E%d[];", k, k, k));
+      }
+      fields.add(format("kind: syn.m%d.E%d;", index, index));
+      lines.add("");
+      lines.add(format("  class S%d_%d {", index, j));
+      for (String field : fields) {
+        lines.add(format("    %s", field));
+      }
+      lines.add("");
+      lines.add(format("      constructor(args?: { %s });", join(" ", fields)));
+      lines.add("  }");
+    }
+    lines.add("");
+    lines.add(format("  class X%d extends Thrift.TException {", index));
+    lines.add("    message: string;");
+    lines.add("");
+    lines.add("      constructor(args?: { message: string; });");
+    lines.add("  }");
+    lines.add("}");
+    return lines;
+  }
+
+  /**
+   * @return declarations of {@code Svc<index>.d.ts}
+   */
+  static List<String> serviceDeclarations(int index, int includes) {
+    List<String> lines = header();
+    lines.add(format("/// <reference path=\"m%d_types.d.ts\" />", index));
+    lines.add("");
+    lines.add(format("declare module syn.m%d {", index));
+    lines.add(format("  class Svc%dClient {", index));
+    lines.add("    input: Thrift.TJSONProtocol;");
+    lines.add("    output: Thrift.TJSONProtocol;");
+    lines.add("    seqid: number;");
+    lines.add("");
+    lines.add("    constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);");
+    lines.add("");
+    lines.add(format("    get(id: number): syn.m%d.S%d_0;", index, index));
+    lines.add("");
+    lines.add(format("    get(id: number, callback?: (data: syn.m%d.S%d_0)=>void): JQueryXHR;", index, index));
+    for (int k = 0; k < includes; k++) {
+      String args = format("key: syn.m%d.S%d_0, m: { [k: string]: syn.m%d.E%d; }", k, k, k, k);
+      lines.add("");
+      lines.add(format("    by%d(%s): syn.m%d.S%d_0[];", k, args, index, index));
+      lines.add("");
+      lines.add(format("    by%d(%s, callback?: (data: syn.m%d.S%d_0[])=>void): JQueryXHR;", k, args, index, index));
+    }
+    lines.add("  }");
+    lines.add("}");
+    return lines;
+  }
+
+  /**
+   * @return content of {@code m<index>_types.js} followed by {@code Svc<index>.js}
+   */
+  static String javaScript(int index, int includes, int symbols) {
+    String ns = format("syn.m%d", index);
+    List<String> lines = header();
+    lines.add("");
+    lines.add(format("%s.E%d = {", ns, index));
+    lines.add("  'A' : 0,");
+    lines.add("  'B' : 4,");
+    lines.add("  'C' : 5");
+    lines.add("};");
+    for (int j = 0; j < symbols; j++) {
+      List<String> fields = new ArrayList<>();
+      fields.add("id");
+      fields.add("name");
+      for (int k = 0; k < includes; k++) {
+        fields.add(format("ref%d", k));
+        fields.add(format("es%d", k));
+      }
+      fields.add("kind");
+      struct(lines, ns, format("S%d_%d", index, j), fields);
+    }
+    struct(lines, ns, format("X%d", index), singletonList("message"));
+    lines.add(format("Thrift.inherits(%s.X%d, Thrift.TException);", ns, index));
+    lines.add(format("%s.X%d.prototype.name = 'X%d';", ns, index, index));
+    List<String> functions = new ArrayList<>();
+    functions.add("get");
+    for (int k = 0; k < includes; k++) {
+      functions.add(format("by%d", k));
+    }
+    String service = format("Svc%d", index);
+    for (String function : functions) {
+      struct(lines, ns, format("%s_%s_args", service, function), singletonList("id"));
+      struct(lines, ns, format("%s_%s_result", service, function), singletonList("success"));
+    }
+    lines.add(format("%s.%sClient = function(input, output) {", ns, service));
+    lines.add("    this.input = input;");
+    lines.add("    this.output = (!output) ? input : output;");
+    lines.add("    this.seqid = 0;");
+    lines.add("};");
+    lines.add(format("%s.%sClient.prototype = {};", ns, service));
+    for (String function : functions) {
+      lines.add(format("%s.%sClient.prototype.%s = function(id, callback) {", ns, service, function));
+      lines.add(format("  this.send_%s(id, callback);", function));
+      lines.add("  if (!callback) {");
+      lines.add(format("    return this.recv_%s();", function));
+      lines.add("  }");
+      lines.add("};");
+      lines.add("");
+    }
+    return join("\n", lines) + "\n";
+  }
+
+  private static void struct(List<String> lines, String ns, String name, List<String> fields) {
+    lines.add(format("%s.%s = function(args) {", ns, name));
+    for (String field : fields) {
+      lines.add(format("  this.%s = null;", field));
+    }
+    lines.add("  if (args) {");
+    for (String field : fields) {
+      lines.add(format("    if (args.%s !== undefined && args.%s !== null) {", field, field));
+      lines.add(format("      this.%s = args.%s;", field, field));
+      lines.add("    }");
+    }
+    lines.add("  }");
+    lines.add("};");
+    lines.add(format("%s.%s.prototype = {};", ns, name));
+    lines.add(format("%s.%s.prototype.read = function(input) {", ns, name));
+    lines.add("  input.readStructBegin();");
+    lines.add("  input.readStructEnd();");
+    lines.add("  return;");
+    lines.add("};");
+    lines.add("");
+    lines.add(format("%s.%s.prototype.write = function(output) {", ns, name));
+    lines.add(format("  output.writeStructBegin('%s');", name));
+    lines.add("  output.writeFieldStop();");
+    lines.add("  output.writeStructEnd();");
+    lines.add("  return;");
+    lines.add("};");
+    lines.add("");
+  }
+
+  private static List<String> header() {
+    List<String> lines = new ArrayList<>();
+    lines.add("//");
+    lines.add("// Autogenerated by Thrift Compiler (0.11.0)");
+    lines.add("//");
+    lines.add("// DO NOT EDIT UNLESS YOU ARE SURE THAT YOU KNOW WHAT YOU ARE DOING");
+    lines.add("//");
+    lines.add("");
+    return lines;
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,127 @@
+package io.t2ng;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.lang.String.join;
+
+/**
+ * Builds Thrift workspace of given number of files spread over layers of
+ * include graph. Files of the first layer include nothing, every other
+ * file includes {@code fanOut} files of the previous layer, so the longest
+ * include chain is {@code depth} files long. File {@code f<i>} lives in
+ * directory {@code l<layer>} and has namespace {@code syn.f<i>}
+ */
+final class SyntheticWorkspace {
+
+  private final int files;
+  private final int depth;
+  private final int fanOut;
+  private final int structs;
+  private final int enums;
+  private final int services;
+
+  /**
+   * @param structs structs per file, at least one as every struct references first struct of included files
+   */
+  SyntheticWorkspace(int files, int depth, int fanOut, int structs, int enums, int services) {
+    if (files < 1 || depth < 0 || fanOut < 0 || structs < 1 || enums < 0 || services < 0) {
+      throw new IllegalArgumentException(format(
+        "invalid workspace of %d files, depth %d, fan-out %d, %d structs, %d enums, %d services",
+        files, depth, fanOut, structs, enums, services
+      ));
+    }
+    this.files = files;
+    this.depth = depth;
+    this.fanOut = fanOut;
+    this.structs = structs;
+    this.enums = enums;
+    this.services = services;
+  }
+
+  /**
+   * @return number of bytes written
+   */
+  long write(Path dir) throws IOException {
+    List<List<Integer>> layers = new ArrayList<>();
+    for (int layer = 0; layer <= depth; layer++) {
+      layers.add(new ArrayList<>());
+    }
+    for (int i = 0; i < files; i++) {
+      layers.get(i % layers.size()).add(i);
+    }
+    long size = 0;
+    for (int layer = 0; layer < layers.size(); layer++) {
+      Path layerDir = dir.resolve(format("l%d", layer));
+      Files.createDirectories(layerDir);
+      for (int i : layers.get(layer)) {
+        List<Integer> includes = new ArrayList<>();
+        if (layer > 0) {
+          List<Integer> candidates = layers.get(layer - 1);
+          for (int k = 0; k < fanOut && k < candidates.size(); k++) {
+            includes.add(candidates.get((i * 7 + k) % candidates.size()));
+          }
+        }
+        byte[] content = thrift(i, includes).getBytes(StandardCharsets.UTF_8);
+        Files.write(layerDir.resolve(format("f%d.thrift", i)), content);
+        size += content.length;
+      }
+    }
+    return size;
+  }
+
+  private String thrift(int index, List<Integer> includes) {
+    List<String> lines = new ArrayList<>();
+    lines.add(format("namespace java io.syn.f%d", index));
+    lines.add(format("namespace js syn.f%d", index));
+    lines.add("");
+    for (int include : includes) {
+      lines.add(format("include \"f%d.thrift\"", include));
+    }
+    for (int e = 0; e < enums; e++) {
+      lines.add("");
+      lines.add(format("enum E%d_%d {", index, e));
+      lines.add("  A,");
+      lines.add("  B = 4,");
+      lines.add("  C");
+      lines.add("}");
+    }
+    for (int s = 0; s < structs; s++) {
+      lines.add("");
+      lines.add(format("struct S%d_%d {", index, s));
+      lines.add("  1: i64 id,");
+      lines.add("  2: string name,");
+      if (enums > 0) {
+        lines.add(format("  3: E%d_0 kind,", index));
+      }
+      int field = 10;
+      for (int include : includes) {
+        lines.add(format("  %d: f%d.S%d_0 ref%d,", field++, include, include, include));
+        if (enums > 0) {
+          lines.add(format("  %d: list<f%d.E%d_0> kinds%d,", field++, include, include, include));
+        }
+      }
+      lines.add(format("  %d: bool active", field));
+      lines.add("}");
+    }
+    lines.add("");
+    lines.add(format("exception X%d {", index));
+    lines.add("  1: string message");
+    lines.add("}");
+    for (int s = 0; s < services; s++) {
+      lines.add("");
+      lines.add(format("service Svc%d_%d {", index, s));
+      lines.add(format("  S%d_0 get(1: i64 id) throws (1: X%d x)", index, index));
+      for (int include : includes) {
+        lines.add(format("  list<S%d_0> by%d(1: f%d.S%d_0 key)", index, include, include, include));
+      }
+      lines.add("}");
+    }
+    return join("\n", lines) + "\n";
+  }
+}
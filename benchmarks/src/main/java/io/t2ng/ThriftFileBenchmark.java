@@ -0,0 +1,62 @@
+package io.t2ng;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scanning of a Thrift file: capturing of namespaces, includes, declared
+ * and referenced symbols, and parsing of definitions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThriftFileBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int symbols;
+
+  @Param({"1", "10", "50"})
+  private int includes;
+
+  private File file;
+  private byte[] content;
+  private String source;
+
+  @Setup
+  public void setUp() {
+    file = new File(String.format("m%d.thrift", includes));
+    source = SyntheticIdl.thrift(includes, includes, symbols);
+    content = source.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public ThriftFile scan() {
+    return ThriftFile.of(file, content);
+  }
+
+  @Benchmark
+  public String jsNamespace() {
+    return ThriftFile.of(file, content).jsNamespace();
+  }
+
+  @Benchmark
+  public ThriftDocument parse() {
+    return ThriftParser.parse(file.getName(), source);
+  }
+}
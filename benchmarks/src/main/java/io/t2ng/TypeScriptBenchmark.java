@@ -0,0 +1,113 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composition of TypeScript module of a file: rewriting of
+ * {@code thrift --gen js:ts} declarations, imports of included symbols
+ * and declarations emitted from parsed IDL
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeScriptBenchmark {
+
+  /**
+   * Approximate number of lines of declarations
+   */
+  @Param({"1000", "10000", "100000"})
+  private int lines;
+
+  @Param({"1", "10", "50"})
+  private int includes;
+
+  private Path workspace;
+  private ThriftProject project;
+  private ThriftFile thriftFile;
+  private Set<String> includedNamespaces;
+  private List<String> typeDeclarations;
+  private List<String> serviceDeclarations;
+  private String typeDeclarationText;
+  private String serviceDeclarationText;
+
+  @Setup
+  public void setUp() throws IOException {
+    int symbols = SyntheticIdl.symbolsForDeclarationLines(lines, includes);
+    workspace = Files.createTempDirectory("t2ng-bench");
+    Path file = SyntheticIdl.workspace(workspace, includes, symbols);
+    project = ThriftProject.scan(
+      Collections.singletonList(file.toFile()),
+      Workspace.scan(workspace.toString())
+    );
+    thriftFile = project.files().get(0);
+    thriftFile.document();
+    project.includes(thriftFile).forEach(ThriftFile::document);
+    includedNamespaces = Generator.buildIncludedNamespaces(project, thriftFile);
+    typeDeclarations = SyntheticIdl.typeDeclarations(includes, includes, symbols);
+    serviceDeclarations = SyntheticIdl.serviceDeclarations(includes, includes);
+    typeDeclarationText = String.join("\n", typeDeclarations);
+    serviceDeclarationText = String.join("\n", serviceDeclarations);
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileUtils.deleteQuietly(workspace.toFile());
+  }
+
+  @Benchmark
+  public void rewrite(Blackhole blackhole) {
+    TypeScriptRewriter rewriter = Generator.typeScriptRewriter(thriftFile, includedNamespaces);
+    blackhole.consume(rewriter.rewrite(typeDeclarations));
+    blackhole.consume(rewriter.rewrite(serviceDeclarations));
+  }
+
+  /**
+   * Rewriting line by line straight into writer, as it's done when module is composed
+   */
+  @Benchmark
+  public void rewriteStreaming() throws IOException {
+    TypeScriptRewriter rewriter = Generator.typeScriptRewriter(thriftFile, includedNamespaces);
+    try (BufferedWriter writer = new BufferedWriter(new NullWriter())) {
+      rewriter.rewrite(new BufferedReader(new StringReader(typeDeclarationText)), writer);
+      rewriter.rewrite(new BufferedReader(new StringReader(serviceDeclarationText)), writer);
+    }
+  }
+
+  @Benchmark
+  public List<String> imports() {
+    return Generator.composeTypeScriptImports(thriftFile, project, "bench");
+  }
+
+  @Benchmark
+  public List<String> emit() {
+    return new TypeScriptEmitter(project, "bench").emit(thriftFile);
+  }
+}
@@ -0,0 +1,127 @@
+package io.t2ng;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TypeScript module shared by Angular services of all namespaces. Services
+ * get clients from {@code ThriftClientFactory} provided by the app, so the
+ * app decides on transport and protocol, and send calls through
+ * {@code ThriftCalls}, which merges identical calls in flight into single
+ * request and caches results of idempotent methods
+ */
+final class AngularSupport {
+
+  /**
+   * Name of the module, can't clash with a namespace
+   */
+  static final String MODULE = "angular-support";
+
+  /**
+   * Annotation of Thrift function which results may be cached
+   */
+  static final String IDEMPOTENT = "idempotent";
+
+  private AngularSupport() {
+  }
+
+  /**
+   * @return lines of the module
+   */
+  static List<String> module() {
+    return Arrays.asList(
+      "import { Injectable } from '@angular/core';",
+      "",
+      "/**",
+      " * Creates clients of services, e.g. all of them over shared transport of multiplexed protocol",
+      " */",
+      "export abstract class ThriftClientFactory {",
+      "  abstract create<T>(service: string, client: { new (input: any, output?: any): T }): T;",
+      "}",
+      "",
+      "/**",
+      " * Results of idempotent methods are cached for ttlMillis, at most maxEntries",
+      " * results per service, least recently used results are evicted first",
+      " */",
+      "@Injectable()",
+      "export class ThriftCacheConfig {",
+      "  ttlMillis = 60000;",
+      "  maxEntries = 1000;",
+      "}",
+      "",
+      "export class ThriftCallStats {",
+      "  hits = 0;",
+      "  misses = 0;",
+      "  coalesced = 0;",
+      "}",
+      "",
+      "interface CacheEntry {",
+      "  value: any;",
+      "  expires: number;",
+      "}",
+      "",
+      "/**",
+      " * Calls of single service. Calls with the same method and arguments share",
+      " * single request while it's in flight, cached results are shared as well",
+      " */",
+      "export class ThriftCalls {",
+      "",
+      "  readonly stats = new ThriftCallStats();",
+      "  private readonly inFlight = new Map<string, Promise<any>>();",
+      "  private readonly cache = new Map<string, CacheEntry>();",
+      "",
+      "  constructor(private readonly config: ThriftCacheConfig) {",
+      "  }",
+      "",
+      "  call<T>(method: string, args: any[], idempotent: boolean, send: (callback: (result: any) => void) => void): Promise<T> {",
+      "    const key = method + JSON.stringify(args);",
+      "    if (idempotent) {",
+      "      const entry = this.cache.get(key);",
+      "      this.cache.delete(key);",
+      "      if (entry && entry.expires > Date.now()) {",
+      "        this.cache.set(key, entry);",
+      "        this.stats.hits++;",
+      "        return Promise.resolve(entry.value);",
+      "      }",
+      "      this.stats.misses++;",
+      "    }",
+      "    const pending = this.inFlight.get(key);",
+      "    if (pending) {",
+      "      this.stats.coalesced++;",
+      "      return pending;",
+      "    }",
+      "    const call = this.send<T>(send);",
+      "    this.inFlight.set(key, call);",
+      "    call.then(value => {",
+      "      this.inFlight.delete(key);",
+      "      if (idempotent) {",
+      "        this.put(key, value);",
+      "      }",
+      "    }, () => this.inFlight.delete(key));",
+      "    return call;",
+      "  }",
+      "",
+      "  /**",
+      "   * Sends call on its own, e.g. of oneway method",
+      "   */",
+      "  send<T>(send: (callback: (result: any) => void) => void): Promise<T> {",
+      "    return new Promise<T>((resolve, reject) => send(result => result instanceof Error ? reject(result) : resolve(result)));",
+      "  }",
+      "",
+      "  clear(): void {",
+      "    this.cache.clear();",
+      "  }",
+      "",
+      "  private put(key: string, value: any): void {",
+      "    if (this.config.ttlMillis <= 0 || this.config.maxEntries < 1) {",
+      "      return;",
+      "    }",
+      "    while (this.cache.size >= this.config.maxEntries) {",
+      "      this.cache.delete(this.cache.keys().next().value as string);",
+      "    }",
+      "    this.cache.set(key, { value: value, expires: Date.now() + this.config.ttlMillis });",
+      "  }",
+      "}"
+    );
+  }
+}
@@ -0,0 +1,263 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Local cache of modules generated from Thrift files, shared by
+ * generations of any workspace and by concurrent processes. Entry is
+ * keyed by SHA-256 of content of the file and of every file it includes,
+ * generation options, Thrift compiler version and t2ng build, so entries
+ * never go stale. Entry is built in a private directory and published by
+ * atomic rename, so others see either the whole entry or nothing. Last
+ * use of entry is kept as modification time of its directory, least
+ * recently used entries go once the cache outgrows its size
+ */
+final class CompileCache {
+
+  private static final long ABANDONED_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final Path dir;
+  private final long maxBytes;
+  private final String salt;
+  private final Log log;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * @param salt everything but Thrift files the outputs depend on, e.g. versions and options
+   */
+  CompileCache(Path dir, long maxBytes, String salt, Log log) {
+    this.dir = dir;
+    this.maxBytes = maxBytes;
+    this.salt = salt;
+    this.log = log;
+  }
+
+  interface Restorer {
+    /**
+     * @param output path of output relative to generated source directory
+     * @param file   cached content of the output
+     */
+    void restore(String output, Path file) throws IOException;
+  }
+
+  String key(ThriftFile thriftFile, ThriftProject project) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    update(digest, salt);
+    Set<ThriftFile> visited = new HashSet<>();
+    Deque<ThriftFile> queue = new ArrayDeque<>();
+    queue.add(thriftFile);
+    while (!queue.isEmpty()) {
+      ThriftFile file = queue.poll();
+      if (!visited.add(file)) {
+        continue;
+      }
+      update(digest, file.file().getName());
+      update(digest, file.hash());
+      queue.addAll(project.includes(file));
+    }
+    StringBuilder key = new StringBuilder();
+    for (byte b : digest.digest()) {
+      key.append(format("%02x", b));
+    }
+    return key.toString();
+  }
+
+  /**
+   * Passes every output of the entry to the restorer and marks the entry
+   * as just used
+   *
+   * @return whether the entry was found and restored completely
+   */
+  boolean restore(String key, Restorer restorer) throws IOException {
+    Path entry = entry(key);
+    try {
+      if (!Files.isDirectory(entry)) {
+        misses.incrementAndGet();
+        return false;
+      }
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      for (Map.Entry<String, Path> output : list(entry).entrySet()) {
+        restorer.restore(output.getKey(), output.getValue());
+      }
+    } catch (NoSuchFileException e) {/*evicted meanwhile*/
+      misses.incrementAndGet();
+      return false;
+    }
+    hits.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Publishes the entry unless another process did it before. Failure to
+   * cache is reported, but never fails generation
+   *
+   * @param outputs files by paths relative to generated source directory
+   */
+  void put(String key, Map<String, Path> outputs) {
+    Path entry = entry(key);
+    if (Files.isDirectory(entry)) {
+      return;
+    }
+    Path temp = null;
+    try {
+      Files.createDirectories(entry.getParent());
+      temp = Files.createTempDirectory(entry.getParent(), format(".%s.", key));
+      for (Map.Entry<String, Path> output : outputs.entrySet()) {
+        Path target = temp.resolve(output.getKey());
+        Files.createDirectories(target.getParent());
+        Files.copy(output.getValue(), target);
+      }
+      Files.move(temp, entry, ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException ignored) {/*published by another process*/
+    } catch (IOException e) {
+      if (Files.isDirectory(entry)) {
+        return;
+      }
+      log.warn(format("can't cache outputs in %s: %s", entry, e.getMessage()));
+    } finally {
+      if (temp != null) {
+        FileUtils.deleteQuietly(temp.toFile());
+      }
+    }
+  }
+
+  /**
+   * Evicts least recently used entries until the cache fits its size.
+   * Entry is renamed before deletion, so nobody reads half deleted one.
+   * Entries left half built or half deleted by killed processes go as well.
+   * Failure to evict is reported, but never fails generation
+   *
+   * @return number of evicted entries
+   */
+  int evict() {
+    if (!Files.isDirectory(dir)) {
+      return 0;
+    }
+    List<Path> entries = new ArrayList<>();
+    try (Stream<Path> shards = Files.list(dir)) {
+      for (Path shard : shards.filter(Files::isDirectory).collect(toList())) {
+        try (Stream<Path> shardEntries = Files.list(shard)) {
+          for (Path entry : shardEntries.collect(toList())) {
+            if (!entry.getFileName().toString().startsWith(".")) {
+              entries.add(entry);
+            } else if (isAbandoned(entry)) {
+              FileUtils.deleteQuietly(entry.toFile());
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn(format("can't evict outputs from compile cache %s: %s", dir, e.getMessage()));
+      return 0;
+    }
+    Map<Path, Long> sizes = new TreeMap<>();
+    Map<Path, Long> lastUse = new TreeMap<>();
+    long total = 0;
+    for (Path entry : entries) {
+      try {
+        long size = FileUtils.sizeOfDirectory(entry.toFile());
+        lastUse.put(entry, Files.getLastModifiedTime(entry).toMillis());
+        sizes.put(entry, size);
+        total += size;
+      } catch (IOException | IllegalArgumentException ignored) {/*evicted by another process*/
+      }
+    }
+    if (total <= maxBytes) {
+      return 0;
+    }
+    List<Path> leastRecentlyUsed = new ArrayList<>(lastUse.keySet());
+    leastRecentlyUsed.sort(Comparator.comparing(lastUse::get));
+    int evicted = 0;
+    for (Path entry : leastRecentlyUsed) {
+      if (total <= maxBytes) {
+        break;
+      }
+      Path doomed = entry.resolveSibling(format(".%s.evicted", entry.getFileName()));
+      try {
+        Files.move(entry, doomed, ATOMIC_MOVE);
+      } catch (IOException ignored) {/*evicted by another process*/
+        continue;
+      }
+      FileUtils.deleteQuietly(doomed.toFile());
+      total -= sizes.get(entry);
+      evicted++;
+    }
+    return evicted;
+  }
+
+  long hits() {
+    return hits.get();
+  }
+
+  long misses() {
+    return misses.get();
+  }
+
+  private static boolean isAbandoned(Path entry) {
+    try {
+      return System.currentTimeMillis() - Files.getLastModifiedTime(entry).toMillis() > ABANDONED_MILLIS;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private Path entry(String key) {
+    return dir.resolve(key.substring(0, 2)).resolve(key);
+  }
+
+  /**
+   * Lists outputs of the entry. Entry evicted by another process before
+   * or while it's walked is reported as {@link NoSuchFileException}
+   */
+  static Map<String, Path> list(Path entry) throws IOException {
+    Map<String, Path> outputs = new TreeMap<>();
+    try (Stream<Path> files = Files.walk(entry)) {
+      files.filter(Files::isRegularFile).forEach(file -> outputs.put(
+        entry.relativize(file).toString().replace(File.separatorChar, '/'),
+        file
+      ));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return outputs;
+  }
+
+  private static void update(MessageDigest digest, String s) {
+    digest.update(s.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+}
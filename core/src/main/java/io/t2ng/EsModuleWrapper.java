@@ -0,0 +1,84 @@
+package io.t2ng;
+
+import io.t2ng.ThriftDocument.Const;
+import io.t2ng.ThriftDocument.Enum;
+import io.t2ng.ThriftDocument.Service;
+import io.t2ng.ThriftDocument.Struct;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Wraps JavaScript output of Thrift compiler into ES module. Thrift code
+ * assigns definitions to namespace objects, e.g. {@code a.b.S = ...}, so
+ * namespace objects are declared locally, with namespaces of included
+ * files bound to their imported modules, and every definition is then
+ * exported by its name, the same way as in TypeScript declaration of the
+ * module. Bundlers see static graph of namespaces, so namespaces nobody
+ * imports aren't bundled and every namespace may go to its own lazily
+ * loaded chunk
+ */
+final class EsModuleWrapper {
+
+  private final ThriftProject project;
+  private final String projectName;
+
+  EsModuleWrapper(ThriftProject project, String projectName) {
+    this.project = project;
+    this.projectName = projectName;
+  }
+
+  /**
+   * @return lines going before Thrift code: imports and declarations of namespace objects
+   */
+  List<String> header(ThriftFile thriftFile) {
+    List<String> lines = new ArrayList<>();
+    lines.add("import Thrift from 'thrift/Thrift';");
+    NamespaceTree root = new NamespaceTree();
+    for (ThriftFile include : project.includes(thriftFile)) {
+      String jsNs = include.jsNamespace();
+      if (jsNs.equals(thriftFile.jsNamespace())) {
+        continue;
+      }
+      String alias = alias(jsNs);
+      String line = format("import * as %s from '%s/%s';", alias, projectName, jsNs);
+      if (!lines.contains(line)) {
+        lines.add(line);
+      }
+      root.node(jsNs).bind(alias);
+    }
+    root.node(thriftFile.jsNamespace());
+    for (Map.Entry<String, NamespaceTree> node : root.roots().entrySet()) {
+      lines.add(format("var %s = %s;", node.getKey(), node.getValue().render()));
+    }
+    return lines;
+  }
+
+  /**
+   * @return lines going after Thrift code: exports of definitions of the file
+   */
+  List<String> footer(ThriftFile thriftFile) {
+    String jsNs = thriftFile.jsNamespace();
+    ThriftDocument document = thriftFile.document();
+    List<String> symbols = new ArrayList<>();
+    document.definitions(Enum.class).forEach(e -> symbols.add(e.name()));
+    document.definitions(Const.class).forEach(c -> symbols.add(c.name()));
+    document.definitions(Struct.class).forEach(s -> symbols.add(s.name()));
+    document.definitions(Service.class).forEach(s -> symbols.add(format("%sClient", s.name())));
+    List<String> lines = new ArrayList<>();
+    for (String symbol : symbols) {
+      lines.add(format("export var %s = %s.%s;", symbol, jsNs, symbol));
+    }
+    return lines;
+  }
+
+  /**
+   * @return name of imported module binding, {@code $} never appears in namespaces
+   */
+  private static String alias(String jsNs) {
+    return jsNs.replace('.', '$');
+  }
+}
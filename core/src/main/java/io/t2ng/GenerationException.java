@@ -0,0 +1,13 @@
+package io.t2ng;
+
+/**
+ * Failure of generation started via {@link Generator#generate()}
+ */
+public final class GenerationException extends Exception {
+
+  private static final long serialVersionUID = 1L;
+
+  GenerationException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,1149 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+import static java.lang.String.join;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.synchronizedMap;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Generates TypeScript contract, JavaScript implementation and Java beans
+ * which well integrated across back-end and front-end layers and
+ * compatible with Angular2 app. Runs either from command line or embedded
+ * into another application via {@link #generate()}
+ */
+public final class Generator {
+
+  private static final String TMPFS_DIR = "/dev/shm";
+  private static final long MIN_TMPFS_SPACE = 64L * 1024 * 1024;
+  private static final long TMPFS_SPACE_FACTOR = 64;
+
+  private final GeneratorConfig config;
+
+  public Generator(GeneratorConfig config) {
+    this.config = requireNonNull(config);
+  }
+
+  /**
+   * Generates sources as configured. Generations by the same instance
+   * run one by one, instances don't share any state, so instances with
+   * different generated source directories may run concurrently
+   */
+  public synchronized void generate() throws GenerationException {
+    try {
+      inScratchDirectory(config, tempDir -> generate(config, tempDir));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GenerationException("generation interrupted", e);
+    } catch (Exception e) {
+      throw new GenerationException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return first line printed by {@code thrift -version} of configured
+   * compiler, empty when compiler can't be run or doesn't tell its version
+   */
+  public Optional<String> thriftVersion() throws InterruptedException {
+    return new ThriftCompiler(config.thriftExecutable(), emptyList(), config.thriftTimeoutMillis()).version();
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("merge")) {
+      ShardMerge.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    GeneratorConfig config = GeneratorConfig.fromArguments(args);
+    if (config.watch()) {
+      inScratchDirectory(config, tempDir -> watch(config, tempDir));
+    } else {
+      inScratchDirectory(config, tempDir -> generate(config, tempDir));
+    }
+  }
+
+  private interface Task {
+    void run(String tempDir) throws Exception;
+  }
+
+  /**
+   * Runs the task with scratch directory which is removed afterwards or
+   * on shutdown of JVM
+   */
+  private static void inScratchDirectory(GeneratorConfig config, Task task) throws Exception {
+    String tempDir = createScratchDirectory(config);
+    Thread cleanup = new Thread(() -> FileUtils.deleteQuietly(new File(tempDir)));
+    Runtime.getRuntime().addShutdownHook(cleanup);
+    try {
+      task.run(tempDir);
+    } finally {
+      FileUtils.deleteQuietly(new File(tempDir));
+      try {
+        Runtime.getRuntime().removeShutdownHook(cleanup);
+      } catch (IllegalStateException ignored) {/*shutdown in progress*/
+      }
+    }
+  }
+
+  /**
+   * Creates directory for intermediate outputs of Thrift compiler. Unless
+   * specified, it's created in memory backed file system when there is
+   * enough room there
+   */
+  private static String createScratchDirectory(GeneratorConfig config) throws IOException {
+    Optional<Path> root = config.scratchDir().map(Paths::get);
+    if (!root.isPresent()) {
+      Path tmpfs = Paths.get(TMPFS_DIR);
+      long required = Math.max(MIN_TMPFS_SPACE, FileUtils.sizeOfDirectory(new File(config.inputDir())) * TMPFS_SPACE_FACTOR);
+      if (Files.isDirectory(tmpfs) && Files.isWritable(tmpfs) && Files.getFileStore(tmpfs).getUsableSpace() > required) {
+        root = Optional.of(tmpfs);
+      }
+    }
+    Path scratchDir = root.isPresent()
+      ? Files.createTempDirectory(root.get(), config.projectName())
+      : Files.createTempDirectory(config.projectName());
+    return scratchDir.toFile().getAbsolutePath();
+  }
+
+  /**
+   * Keeps generating on every change of input directory till the process
+   * is stopped. Failures are reported and don't stop watching, failed
+   * files are retried on next change
+   */
+  private static void watch(GeneratorConfig config, String tempDir) throws Exception {
+    try (InputWatcher watcher = new InputWatcher(Paths.get(config.inputDir()))) {
+      generateWatched(config, tempDir);
+      while (true) {
+        config.log().info(format("watching %s for changes", config.inputDir()));
+        watcher.awaitChanges();
+        config.log().info("changes detected");
+        generateWatched(config, tempDir);
+      }
+    }
+  }
+
+  /**
+   * Generates once, failure of any kind is reported and doesn't stop
+   * watching. Changed files are found by content hashes, so nothing but
+   * the fact of change is taken from watcher
+   *
+   * @return whether generation succeeded
+   */
+  static boolean generateWatched(GeneratorConfig config, String tempDir) {
+    long started = System.nanoTime();
+    try {
+      generate(config, tempDir);
+      config.log().info(format("generated in %d ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      config.log().warn("generation interrupted");
+    } catch (Exception e) {
+      config.log().warn(format("generation failed: %s", e));
+    }
+    return false;
+  }
+
+  private static void generate(GeneratorConfig config, String tempDir) throws Exception {
+    Profile profile = new Profile();
+    try {
+      generate(config, tempDir, profile);
+    } finally {
+      profile.finish();
+      if (config.profile()) {
+        profile.summary().forEach(config.log()::info);
+      }
+      if (config.profileJson().isPresent()) {
+        profile.writeJson(Paths.get(config.profileJson().get()));
+      }
+    }
+  }
+
+  private static void generate(GeneratorConfig config, String tempDir, Profile profile) throws Exception {
+    String projectName = config.projectName();
+    String inputDir = config.inputDir();
+    String generatedSourceDir = config.generatedSourceDir();
+    boolean mergeJsFiles = config.mergeJsFiles();
+    Log log = config.log();
+    Workspace workspace = Workspace.scan(inputDir);
+    profile.record("discovery", workspace.scanNanos());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    profile.record("read", project.readNanos());
+    profile.read(project.size());
+    project.ambiguousIncludes().forEach((include, files) -> log.warn(format(
+      "include %s.thrift is ambiguous, found %s, the one next to including file is used, otherwise the first one",
+      include,
+      files.stream().map(f -> Manifest.relativePath(inputDir, f)).collect(joining(", "))
+    )));
+    List<ThriftFile> thriftFiles = project.files();
+    long started = System.nanoTime();
+    Map<ThriftFile, Set<ThriftFile>> includeGraph = buildIncludeGraph(project);
+    profile.record("include resolution", project.resolveNanos() + System.nanoTime() - started);
+    Manifest manifest = new Manifest(projectName, config.outputOptions());
+    if (config.shard().isPresent()) {
+      started = System.nanoTime();
+      Shard shard = config.shard().get();
+      manifest.shard(shard.toString(), thriftFiles.size(), Shard.fingerprint(thriftFiles, inputDir));
+      thriftFiles = shard.select(thriftFiles, includeGraph, inputDir);
+      profile.record("sharding", System.nanoTime() - started);
+      log.info(format("shard %s: %d of %d Thrift files", shard, thriftFiles.size(), project.files().size()));
+    }
+    Optional<Manifest> previous = Optional.empty();
+    if (config.incremental() && mergeJsFiles) {
+      log.info("incremental generation is not available with -m, regenerating all files");
+    } else if (config.incremental() && config.shard().isPresent()) {
+      log.info("incremental generation is not available with --shard, regenerating all files");
+    } else if (config.incremental()) {
+      previous = Manifest.read(generatedSourceDir, log)
+        .filter(m -> m.projectName().equals(projectName) && m.options().equals(config.outputOptions()))
+        .filter(m -> !m.shard().isPresent());
+    }
+    Collection<ThriftFile> dirtyFiles;
+    if (previous.isPresent()) {
+      dirtyFiles = findDirtyFiles(previous.get(), thriftFiles, includeGraph, inputDir, generatedSourceDir);
+      for (ThriftFile thriftFile : thriftFiles) {
+        if (!dirtyFiles.contains(thriftFile)) {
+          String input = Manifest.relativePath(inputDir, thriftFile.file());
+          manifest.put(input, thriftFile.hash(), previous.get().includes(input), previous.get().outputs(input));
+        }
+      }
+      log.info(format("regenerating %d of %d Thrift files", dirtyFiles.size(), thriftFiles.size()));
+    } else {
+      initFsTree(generatedSourceDir, tempDir, log);
+      dirtyFiles = thriftFiles;
+    }
+    Map<File, Exception> failures = synchronizedMap(new TreeMap<>(project.failures()));
+    ThriftCompiler compiler = new ThriftCompiler(
+      config.thriftExecutable(),
+      project.includeDirs(),
+      config.thriftTimeoutMillis()
+    );
+    Optional<CompileCache> cache = openCompileCache(config, compiler);
+    Map<ThriftFile, Set<String>> outputs = generateModules(
+      dirtyFiles,
+      project,
+      compiler,
+      cache,
+      config,
+      tempDir,
+      failures,
+      profile
+    );
+    for (ThriftCompiler.Invocation invocation : compiler.invocations()) {
+      profile.record(
+        format("compile %s", join(" ", invocation.generators())),
+        invocation.spawnNanos() + invocation.runNanos()
+      );
+    }
+    profile.processesStarted(compiler.processesStarted());
+    started = System.nanoTime();
+    outputs.forEach((thriftFile, files) -> manifest.put(
+      Manifest.relativePath(inputDir, thriftFile.file()),
+      thriftFile.hash(),
+      includeGraph.getOrDefault(thriftFile, emptySet()).stream()
+        .map(f -> Manifest.relativePath(inputDir, f.file()))
+        .collect(toSet()),
+      files
+    ));
+    if (failures.isEmpty() && config.shard().map(s -> s.index() == 1).orElse(true)) {
+      if (config.multiplex()) {
+        generateMultiplexedServices(project, config, profile).forEach(manifest::putProjectOutput);
+      }
+      if (config.angularServices()) {
+        manifest.putProjectOutput(generateAngularSupport(config, profile));
+      }
+    }
+    manifest.write(generatedSourceDir);
+    profile.record("manifest", System.nanoTime() - started);
+    if (previous.isPresent()) {
+      profile.removed(removeStaleOutputs(previous.get(), thriftFiles, dirtyFiles, manifest, inputDir, generatedSourceDir));
+    } else {
+      Set<String> known = new HashSet<>(manifest.outputs());
+      if (mergeJsFiles && failures.isEmpty()) {
+        known.add(Manifest.relativePath(generatedSourceDir, bundleFile(generatedSourceDir)));
+      }
+      profile.removed(removeUnknownOutputs(generatedSourceDir, known));
+    }
+    printCompilerSummary(compiler, log);
+    if (cache.isPresent()) {
+      started = System.nanoTime();
+      profile.cache(cache.get().hits(), cache.get().misses(), cache.get().evict());
+      profile.record("cache", System.nanoTime() - started);
+      log.info(profile.cache());
+    }
+    if (!failures.isEmpty()) {
+      log.info(profile.outputs());
+      failures.forEach((file, e) -> log.warn(
+        format("can't generate %s: %s", file.getAbsolutePath(), e.getMessage())
+      ));
+      throw new RuntimeException(format(
+        "%d of %d Thrift files failed",
+        failures.size(),
+        dirtyFiles.size() + project.failures().size()
+      ));
+    }
+    if (mergeJsFiles) {
+      mergeJavaScriptModules(outputs.keySet(), includeGraph, inputDir, generatedSourceDir, tempDir, profile, log);
+    }
+    log.info(profile.outputs());
+  }
+
+  /**
+   * Writes client facade of all services of the project along with its
+   * declaration and Java helper registering processors of the services.
+   * They are generated from the whole project, so only the first shard
+   * generates them when the project is sharded
+   *
+   * @return outputs relative to generated source directory
+   */
+  private static Set<String> generateMultiplexedServices(
+    ThriftProject project,
+    GeneratorConfig config,
+    Profile profile
+  ) throws IOException {
+    long started = System.nanoTime();
+    String generatedSourceDir = config.generatedSourceDir();
+    MultiplexedServices services = MultiplexedServices.of(project.files(), config.projectName());
+    String javaPackage = services.javaPackage();
+    File jsFile = new File(format("%s/%s.js", jsGeneratedSourceDir(generatedSourceDir), MultiplexedServices.MODULE));
+    File tsFile = new File(format("%s/%s.d.ts", tsGeneratedSourceDir(generatedSourceDir), MultiplexedServices.MODULE));
+    File javaFile = new File(format(
+      "%s/%s%s.java",
+      javaGeneratedSourceDir(generatedSourceDir),
+      javaPackage.isEmpty() ? "" : javaPackage.replace('.', '/') + "/",
+      MultiplexedServices.JAVA_CLASS
+    ));
+    List<String> jsModule = config.esModules() ? services.esModule() : services.commonJsModule();
+    profile.output(OutputFiles.write(jsFile.toPath(), writer -> {
+      writer.write(joinLines(jsModule));
+      writer.newLine();
+    }));
+    profile.output(OutputFiles.write(tsFile.toPath(), writer -> writer.write(joinLines(services.typeScriptDeclaration()))));
+    profile.output(OutputFiles.write(javaFile.toPath(), writer -> {
+      writer.write(joinLines(services.javaSource()));
+      writer.newLine();
+    }));
+    profile.record("multiplex", System.nanoTime() - started);
+    Set<String> outputs = new TreeSet<>();
+    for (File file : new File[]{jsFile, tsFile, javaFile}) {
+      outputs.add(Manifest.relativePath(generatedSourceDir, file));
+    }
+    return outputs;
+  }
+
+  /**
+   * Writes module shared by Angular services of all namespaces
+   *
+   * @return output relative to generated source directory
+   */
+  private static String generateAngularSupport(GeneratorConfig config, Profile profile) throws IOException {
+    long started = System.nanoTime();
+    String generatedSourceDir = config.generatedSourceDir();
+    File file = new File(format("%s/%s.ts", tsGeneratedSourceDir(generatedSourceDir), AngularSupport.MODULE));
+    profile.output(OutputFiles.write(file.toPath(), writer -> {
+      writer.write(joinLines(AngularSupport.module()));
+      writer.newLine();
+    }));
+    profile.record("angular", System.nanoTime() - started);
+    return Manifest.relativePath(generatedSourceDir, file);
+  }
+
+  /**
+   * Streams JavaScript modules one by one into {@code js/all.js}, so only
+   * a buffer is kept in memory. Modules of included files go before
+   * modules of files including them. Modules are composed in scratch
+   * directory, so they never appear among generated sources
+   */
+  private static void mergeJavaScriptModules(
+    Collection<ThriftFile> thriftFiles,
+    Map<ThriftFile, Set<ThriftFile>> includeGraph,
+    String inputDir,
+    String generatedSourceDir,
+    String tempDir,
+    Profile profile,
+    Log log
+  ) throws IOException {
+    long started = System.nanoTime();
+    Set<Path> modules = new LinkedHashSet<>();
+    for (ThriftFile thriftFile : sortByIncludes(thriftFiles, includeGraph, f -> Manifest.relativePath(inputDir, f.file()))) {
+      modules.add(Paths.get(format("%s/%s.js", jsModuleDir(tempDir), thriftFile.jsNamespace())));
+    }
+    Path bundle = bundleFile(generatedSourceDir).toPath();
+    long size = 0;
+    for (Path module : modules) {
+      size += Files.size(module);
+    }
+    profile.output(OutputFiles.concatenate(bundle, modules));
+    for (Path module : modules) {
+      Files.delete(module);
+    }
+    profile.record("merge", System.nanoTime() - started);
+    profile.read(size);
+    log.info(format(
+      "merged %d JavaScript modules into %s: %d bytes in %d ms",
+      modules.size(),
+      bundle,
+      size,
+      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+    ));
+  }
+
+  /**
+   * Orders files so every file goes after the files it includes, files
+   * which don't depend on each other are ordered by path. Files of an
+   * include cycle, if any, go last. Files are either Thrift files or
+   * their paths from manifest, so merged shards get the same order
+   *
+   * @param path path of file relative to input directory
+   */
+  static <T> List<T> sortByIncludes(
+    Collection<T> thriftFiles,
+    Map<T, Set<T>> includeGraph,
+    Function<T, String> path
+  ) {
+    Comparator<T> byPath = Comparator.comparing(path);
+    Map<T, Integer> pendingIncludes = new HashMap<>();
+    Map<T, Set<T>> includers = new HashMap<>();
+    PriorityQueue<T> ready = new PriorityQueue<>(byPath);
+    for (T thriftFile : thriftFiles) {
+      Set<T> includes = new HashSet<>(includeGraph.getOrDefault(thriftFile, emptySet()));
+      includes.retainAll(thriftFiles);
+      includes.forEach(include -> includers.computeIfAbsent(include, k -> new HashSet<>()).add(thriftFile));
+      pendingIncludes.put(thriftFile, includes.size());
+      if (includes.isEmpty()) {
+        ready.add(thriftFile);
+      }
+    }
+    List<T> sorted = new ArrayList<>();
+    while (!ready.isEmpty()) {
+      T thriftFile = ready.poll();
+      sorted.add(thriftFile);
+      for (T includer : includers.getOrDefault(thriftFile, emptySet())) {
+        if (pendingIncludes.merge(includer, -1, Integer::sum) == 0) {
+          ready.add(includer);
+        }
+      }
+    }
+    thriftFiles.stream()
+      .filter(f -> pendingIncludes.get(f) > 0)
+      .sorted(byPath)
+      .forEach(sorted::add);
+    return sorted;
+  }
+
+  /**
+   * Spreads Thrift files over a pool of workers. Files sharing the same
+   * JavaScript namespace are handled by the same worker one by one, so
+   * workers never share temp output directory of a namespace
+   *
+   * @return outputs of every successfully generated file, relative to generated source directory
+   */
+  private static Map<ThriftFile, Set<String>> generateModules(
+    Collection<ThriftFile> thriftFiles,
+    ThriftProject project,
+    ThriftCompiler compiler,
+    Optional<CompileCache> cache,
+    GeneratorConfig config,
+    String tempDir,
+    Map<File, Exception> failures,
+    Profile profile
+  ) throws InterruptedException {
+    Map<ThriftFile, Set<String>> outputs = new ConcurrentHashMap<>();
+    Map<String, List<ThriftFile>> namespaces = new LinkedHashMap<>();
+    for (ThriftFile thriftFile : thriftFiles) {
+      try {
+        namespaces.computeIfAbsent(thriftFile.jsNamespace(), ns -> new ArrayList<>()).add(thriftFile);
+      } catch (RuntimeException e) {
+        failures.put(thriftFile.file(), e);
+      }
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(config.workers());
+    try {
+      for (List<ThriftFile> files : namespaces.values()) {
+        executor.execute(() -> {
+          for (ThriftFile thriftFile : files) {
+            try {
+              outputs.put(thriftFile, generateModule(thriftFile, project, compiler, cache, config, tempDir, profile));
+            } catch (Exception e) {
+              failures.put(thriftFile.file(), e);
+            }
+          }
+        });
+      }
+    } finally {
+      executor.shutdown();
+    }
+    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    return outputs;
+  }
+
+  /**
+   * Restores modules of the file from compile cache, when there is one,
+   * or compiles them and caches the outputs
+   *
+   * @return outputs relative to generated source directory
+   */
+  private static Set<String> generateModule(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    ThriftCompiler compiler,
+    Optional<CompileCache> cache,
+    GeneratorConfig config,
+    String tempDir,
+    Profile profile
+  ) throws IOException, InterruptedException {
+    if (!cache.isPresent()) {
+      return compileModule(thriftFile, project, compiler, config, tempDir, profile);
+    }
+    String generatedSourceDir = config.generatedSourceDir();
+    String jsModule = Manifest.relativePath(
+      generatedSourceDir,
+      new File(format("%s/%s.js", jsGeneratedSourceDir(generatedSourceDir), thriftFile.jsNamespace()))
+    );
+    Path mergedJsModule = Paths.get(format("%s/%s.js", jsModuleDir(tempDir), thriftFile.jsNamespace()));
+    long started = System.nanoTime();
+    String key = cache.get().key(thriftFile, project);
+    Set<String> restored = new TreeSet<>();
+    List<Long> written = new ArrayList<>();
+    boolean hit = cache.get().restore(key, (output, file) -> {
+      if (config.mergeJsFiles() && output.equals(jsModule)) {
+        OutputFiles.copy(file, mergedJsModule);
+      } else {
+        written.add(OutputFiles.copy(file, Paths.get(generatedSourceDir, output)));
+        restored.add(output);
+      }
+    });
+    profile.record("cache", System.nanoTime() - started);
+    if (hit) {
+      // outputs of entry evicted while restored are counted once, when compiled
+      written.forEach(profile::output);
+      return restored;
+    }
+    Set<String> outputs = compileModule(thriftFile, project, compiler, config, tempDir, profile);
+    started = System.nanoTime();
+    Map<String, Path> files = new TreeMap<>();
+    for (String output : outputs) {
+      files.put(output, Paths.get(generatedSourceDir, output));
+    }
+    if (config.mergeJsFiles()) {
+      files.put(jsModule, mergedJsModule);
+    }
+    cache.get().put(key, files);
+    profile.record("cache", System.nanoTime() - started);
+    return outputs;
+  }
+
+  private static Set<String> compileModule(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    ThriftCompiler compiler,
+    GeneratorConfig config,
+    String tempDir,
+    Profile profile
+  ) throws IOException, InterruptedException {
+    String projectName = config.projectName();
+    String generatedSourceDir = config.generatedSourceDir();
+    String thriftFilePath = thriftFile.file().getAbsolutePath();
+    String jsNs = thriftFile.jsNamespace();
+    Set<String> outputs = new TreeSet<>();
+    if (config.emitTypeScript()) {
+      String tsFile = emitTypeScriptModule(thriftFile, project, projectName, generatedSourceDir, profile);
+      outputs.add(Manifest.relativePath(generatedSourceDir, new File(tsFile)));
+    }
+    if (config.angularServices()) {
+      emitAngularServices(thriftFile, project, projectName, generatedSourceDir, profile)
+        .ifPresent(file -> outputs.add(Manifest.relativePath(generatedSourceDir, new File(file))));
+    }
+    if (config.typeScriptOnly()) {
+      return outputs;
+    }
+    String outputPath = findOrCreateDirectory(jsNs, thriftFilePath, tempDir);
+    String javaOutputPath = format("%s/gen-java", outputPath);
+    String jsOutputPath = format("%s/gen-js", outputPath);
+    try {
+      compiler.compile(thriftFile.file(), outputPath, generators(config));
+      long started = System.nanoTime();
+      for (File javaFile : listJavaFiles(javaOutputPath)) {
+        String javaFileName = Manifest.relativePath(javaOutputPath, javaFile);
+        File targetFile = new File(format("%s/%s", javaGeneratedSourceDir(generatedSourceDir), javaFileName));
+        if (!targetFile.getParentFile().isDirectory() && !targetFile.getParentFile().mkdirs()) {
+          throw new RuntimeException(format("can't create directory %s for %s", targetFile.getParent(), thriftFilePath));
+        }
+        profile.output(OutputFiles.move(javaFile.toPath(), targetFile.toPath()));
+        outputs.add(Manifest.relativePath(generatedSourceDir, targetFile));
+      }
+      profile.record("java", System.nanoTime() - started);
+      if (!config.emitTypeScript()) {
+        Set<String> includedNamespaces = buildIncludedNamespaces(project, thriftFile);
+        String tsFile = composeTypeScriptModule(thriftFile, project, includedNamespaces, jsOutputPath, projectName,
+          generatedSourceDir, profile
+        );
+        outputs.add(Manifest.relativePath(generatedSourceDir, new File(tsFile)));
+      }
+      String jsDir = config.mergeJsFiles() ? jsModuleDir(tempDir) : jsGeneratedSourceDir(generatedSourceDir);
+      File jsFile = new File(format("%s/%s.js", jsDir, jsNs));
+      long written = config.esModules()
+        ? composeEsModule(thriftFile, project, jsOutputPath, projectName, jsFile, profile)
+        : composeJavaScriptModule(thriftFile, project, jsOutputPath, projectName, jsFile, profile);
+      if (!config.mergeJsFiles()) {
+        profile.output(written);
+        outputs.add(Manifest.relativePath(generatedSourceDir, jsFile));
+      }
+    } finally {
+      FileUtils.deleteQuietly(new File(javaOutputPath));
+      FileUtils.deleteQuietly(new File(jsOutputPath));
+    }
+    return outputs;
+  }
+
+  private static List<String> generators(GeneratorConfig config) {
+    return Arrays.asList(
+      "java:generated_annotations=undated,beans",
+      config.emitTypeScript() ? "js" : "js:ts"
+    );
+  }
+
+  /**
+   * Opens compile cache, unless there is none or only TypeScript is
+   * generated. Cache is off as well when version of Thrift compiler is
+   * unknown, as outputs of other version could be reused then
+   */
+  private static Optional<CompileCache> openCompileCache(
+    GeneratorConfig config,
+    ThriftCompiler compiler
+  ) throws InterruptedException {
+    if (!config.cacheDir().isPresent() || config.typeScriptOnly()) {
+      return Optional.empty();
+    }
+    Optional<String> thriftVersion = compiler.version();
+    if (!thriftVersion.isPresent()) {
+      config.log().info(format(
+        "can't get version of Thrift compiler %s, compile cache is off",
+        config.thriftExecutable()
+      ));
+      return Optional.empty();
+    }
+    String salt = format(
+      "t2ng %s|%s|%s|%s|%s",
+      t2ngBuild(),
+      thriftVersion.get(),
+      join(" ", generators(config)),
+      config.projectName(),
+      config.outputOptions()
+    );
+    return Optional.of(new CompileCache(Paths.get(config.cacheDir().get()), config.cacheSizeBytes(), salt, config.log()));
+  }
+
+  /**
+   * @return version of t2ng along with modification time of its jar or
+   * classes, so outputs of snapshot builds aren't shared
+   */
+  private static String t2ngBuild() {
+    String version = Generator.class.getPackage().getImplementationVersion();
+    long modified = 0;
+    try {
+      File source = new File(Generator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      modified = source.isDirectory()
+        ? new File(source, format("%s.class", Generator.class.getName().replace('.', '/'))).lastModified()
+        : source.lastModified();
+    } catch (URISyntaxException | RuntimeException ignored) {/*unknown build*/
+    }
+    return format("%s %d", version == null ? "unknown" : version, modified);
+  }
+
+  private static void printCompilerSummary(ThriftCompiler compiler, Log log) {
+    Collection<ThriftCompiler.Invocation> invocations = compiler.invocations();
+    if (invocations.isEmpty()) {
+      return;
+    }
+    long spawnNanos = invocations.stream().mapToLong(ThriftCompiler.Invocation::spawnNanos).sum();
+    long runNanos = invocations.stream().mapToLong(ThriftCompiler.Invocation::runNanos).sum();
+    long timedOut = invocations.stream().filter(ThriftCompiler.Invocation::timedOut).count();
+    log.info(format(
+      "Thrift compiler: %d runs, spawn %d ms, run %d ms%s",
+      invocations.size(),
+      TimeUnit.NANOSECONDS.toMillis(spawnNanos),
+      TimeUnit.NANOSECONDS.toMillis(runNanos),
+      timedOut == 0 ? "" : format(", %d timed out", timedOut)
+    ));
+  }
+
+  /**
+   * Resolves includes of every Thrift file. Files with unresolvable
+   * includes are left out of the graph
+   */
+  private static Map<ThriftFile, Set<ThriftFile>> buildIncludeGraph(ThriftProject project) {
+    Map<ThriftFile, Set<ThriftFile>> graph = new HashMap<>();
+    for (ThriftFile thriftFile : project.files()) {
+      try {
+        graph.put(thriftFile, new HashSet<>(project.includes(thriftFile)));
+      } catch (RuntimeException ignored) {
+      }
+    }
+    return graph;
+  }
+
+  /**
+   * Finds files which content, includes or outputs changed since the
+   * previous run, together with all the files including them directly or
+   * indirectly
+   */
+  private static Set<ThriftFile> findDirtyFiles(
+    Manifest previous,
+    Collection<ThriftFile> thriftFiles,
+    Map<ThriftFile, Set<ThriftFile>> includeGraph,
+    String inputDir,
+    String generatedSourceDir
+  ) {
+    Map<ThriftFile, Set<ThriftFile>> includers = new HashMap<>();
+    Deque<ThriftFile> queue = new ArrayDeque<>();
+    for (ThriftFile thriftFile : thriftFiles) {
+      String input = Manifest.relativePath(inputDir, thriftFile.file());
+      Set<ThriftFile> includes = includeGraph.get(thriftFile);
+      if (includes == null
+        || !thriftFile.hash().equals(previous.hash(input))
+        || !previous.includes(input).equals(
+        includes.stream().map(f -> Manifest.relativePath(inputDir, f.file())).collect(toSet()))
+        || previous.outputs(input).stream().anyMatch(o -> !new File(generatedSourceDir, o).exists())) {
+        queue.add(thriftFile);
+      }
+      if (includes != null) {
+        includes.forEach(include -> includers.computeIfAbsent(include, k -> new HashSet<>()).add(thriftFile));
+      }
+    }
+    Set<ThriftFile> dirty = new HashSet<>();
+    while (!queue.isEmpty()) {
+      ThriftFile thriftFile = queue.poll();
+      if (dirty.add(thriftFile)) {
+        queue.addAll(includers.getOrDefault(thriftFile, emptySet()));
+      }
+    }
+    return dirty;
+  }
+
+  /**
+   * Deletes previous outputs of removed and regenerated input files which
+   * are not outputs of any file anymore
+   *
+   * @return number of deleted files
+   */
+  private static int removeStaleOutputs(
+    Manifest previous,
+    Collection<ThriftFile> thriftFiles,
+    Collection<ThriftFile> dirtyFiles,
+    Manifest manifest,
+    String inputDir,
+    String generatedSourceDir
+  ) throws IOException {
+    Set<String> stale = new HashSet<>(previous.inputs());
+    for (ThriftFile thriftFile : thriftFiles) {
+      if (!dirtyFiles.contains(thriftFile)) {
+        stale.remove(Manifest.relativePath(inputDir, thriftFile.file()));
+      }
+    }
+    Set<String> staleOutputs = new TreeSet<>();
+    for (String input : stale) {
+      staleOutputs.addAll(previous.outputs(input));
+    }
+    staleOutputs.removeAll(manifest.outputs());
+    File root = new File(generatedSourceDir).getAbsoluteFile();
+    int removed = 0;
+    for (String output : staleOutputs) {
+      if (deleteWithEmptyParents(root, new File(root, output))) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Deletes files of Java, JavaScript and TypeScript directories which
+   * are not outputs of this generation, e.g. left by previous one
+   *
+   * @param outputs paths relative to generated source directory
+   * @return number of deleted files
+   */
+  static int removeUnknownOutputs(String generatedSourceDir, Set<String> outputs) throws IOException {
+    File root = new File(generatedSourceDir).getAbsoluteFile();
+    int removed = 0;
+    for (String dir : new String[]{
+      javaGeneratedSourceDir(generatedSourceDir),
+      jsGeneratedSourceDir(generatedSourceDir),
+      tsGeneratedSourceDir(generatedSourceDir)}) {
+      List<File> files = new ArrayList<>(FileUtils.listFiles(new File(dir), null, true));
+      files.sort(Comparator.naturalOrder());
+      for (File file : files) {
+        if (!outputs.contains(Manifest.relativePath(generatedSourceDir, file))
+          && deleteWithEmptyParents(root, file.getAbsoluteFile())) {
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Deletes the file and its parent directories left empty, up to Java,
+   * JavaScript and TypeScript directories
+   */
+  private static boolean deleteWithEmptyParents(File root, File file) throws IOException {
+    boolean deleted = Files.deleteIfExists(file.toPath());
+    File parent = file.getParentFile();
+    while (!root.equals(parent.getParentFile()) && parent.delete()) {
+      parent = parent.getParentFile();
+    }
+    return deleted;
+  }
+
+  static Set<String> buildIncludedNamespaces(ThriftProject project, ThriftFile thriftFile) {
+    return thriftFile.includes().stream()
+      .map(include -> project.include(thriftFile, include).jsNamespace())
+      .collect(toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * @return number of bytes written or {@link OutputFiles#UNCHANGED}
+   */
+  private static long composeJavaScriptModule(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    String outputPath,
+    String projectName,
+    File targetFile,
+    Profile profile
+  ) throws IOException, InterruptedException {
+    long started = System.nanoTime();
+    List<File> jsFiles = inGenerationOrder(listJavaScriptFiles(outputPath), thriftFile);
+    profile.read(jsFiles.stream().mapToLong(File::length).sum());
+    JavaScriptModuleTransformer transformer = new JavaScriptModuleTransformer(thriftFile);
+    long written = OutputFiles.write(targetFile.toPath(), writer -> {
+      writer.write(joinLines(transformer.header(project, projectName)));
+      writer.newLine();
+      for (File jsFile : jsFiles) {
+        try (BufferedReader reader = Files.newBufferedReader(jsFile.toPath(), StandardCharsets.UTF_8)) {
+          transformer.transform(reader, writer);
+        }
+      }
+    });
+    codeStyleFormat(targetFile.getPath());
+    profile.record("javascript", System.nanoTime() - started);
+    return written;
+  }
+
+  /**
+   * Composes ES module exporting every definition by its name, so that
+   * namespaces may be imported statically or loaded lazily
+   *
+   * @return number of bytes written or {@link OutputFiles#UNCHANGED}
+   */
+  private static long composeEsModule(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    String outputPath,
+    String projectName,
+    File targetFile,
+    Profile profile
+  ) throws IOException, InterruptedException {
+    long started = System.nanoTime();
+    List<File> jsFiles = inGenerationOrder(listJavaScriptFiles(outputPath), thriftFile);
+    profile.read(jsFiles.stream().mapToLong(File::length).sum());
+    EsModuleWrapper wrapper = new EsModuleWrapper(project, projectName);
+    long written = OutputFiles.write(targetFile.toPath(), writer -> {
+      writer.write(joinLines(wrapper.header(thriftFile)));
+      writer.newLine();
+      for (File jsFile : jsFiles) {
+        copyLines(jsFile, writer);
+      }
+      writer.write(joinLines(wrapper.footer(thriftFile)));
+      writer.newLine();
+    });
+    codeStyleFormat(targetFile.getPath());
+    profile.record("javascript", System.nanoTime() - started);
+    return written;
+  }
+
+  private static void codeStyleFormat(String targetFileName) throws InterruptedException, IOException {
+//    if (new ProcessBuilder("clang-format", "-style=Google", "-i", targetFileName).start().waitFor() != 0) {
+//      throw new RuntimeException(format("can't format JS %s", targetFileName));
+//    }
+  }
+
+  private static String composeTypeScriptModule(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    Set<String> includedNamespaces,
+    String outputPath,
+    String projectName,
+    String generatedSourceDir,
+    Profile profile
+  ) throws IOException, InterruptedException {
+    long started = System.nanoTime();
+    String jsNs = thriftFile.jsNamespace();
+    String targetFileName = format("%s/%s.d.ts", tsGeneratedSourceDir(generatedSourceDir), jsNs);
+    List<File> tsFiles = inGenerationOrder(listTypeScriptFiles(outputPath), thriftFile);
+    profile.read(tsFiles.stream().mapToLong(File::length).sum());
+    profile.output(OutputFiles.write(Paths.get(targetFileName), writer -> {
+      writer.write(makeTypeScriptModuleDeclaration(jsNs, projectName));
+      writer.newLine();
+      writer.write(importThriftAsModule());
+      writer.newLine();
+      writer.write(joinLines(composeTypeScriptImports(thriftFile, project, projectName)));
+      writer.newLine();
+      TypeScriptRewriter rewriter = typeScriptRewriter(thriftFile, includedNamespaces);
+      for (File tsFile : tsFiles) {
+        try (BufferedReader reader = Files.newBufferedReader(tsFile.toPath(), StandardCharsets.UTF_8)) {
+          rewriter.rewrite(reader, writer);
+        }
+      }
+      writer.write("}");
+    }));
+    codeStyleFormat(targetFileName);
+    profile.record("typescript", System.nanoTime() - started);
+    return targetFileName;
+  }
+
+  /**
+   * Writes declarations emitted from parsed IDL, Thrift compiler isn't involved
+   */
+  private static String emitTypeScriptModule(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    String projectName,
+    String generatedSourceDir,
+    Profile profile
+  ) throws IOException, InterruptedException {
+    long started = System.nanoTime();
+    String targetFileName = format("%s/%s.d.ts", tsGeneratedSourceDir(generatedSourceDir), thriftFile.jsNamespace());
+    List<String> declarations = new TypeScriptEmitter(project, projectName).emit(thriftFile);
+    profile.output(OutputFiles.write(Paths.get(targetFileName), writer -> writer.write(joinLines(declarations))));
+    codeStyleFormat(targetFileName);
+    profile.record("typescript", System.nanoTime() - started);
+    return targetFileName;
+  }
+
+  /**
+   * Writes Angular services of the file, if it has any services
+   */
+  private static Optional<String> emitAngularServices(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    String projectName,
+    String generatedSourceDir,
+    Profile profile
+  ) throws IOException {
+    long started = System.nanoTime();
+    List<String> source = new TypeScriptEmitter(project, projectName).emitAngularServices(thriftFile);
+    if (source.isEmpty()) {
+      return Optional.empty();
+    }
+    String targetFileName = format("%s/%s.service.ts", tsGeneratedSourceDir(generatedSourceDir), thriftFile.jsNamespace());
+    profile.output(OutputFiles.write(Paths.get(targetFileName), writer -> {
+      writer.write(joinLines(source));
+      writer.newLine();
+    }));
+    profile.record("angular", System.nanoTime() - started);
+    return Optional.of(targetFileName);
+  }
+
+  static TypeScriptRewriter typeScriptRewriter(ThriftFile thriftFile, Set<String> includedNamespaces) {
+    Set<String> types = thriftFile.types();
+    Set<String> services = thriftFile.services();
+    Set<String> classes = new HashSet<>(types);
+    classes.addAll(services);
+    services.forEach(s -> classes.add(format("%sClient", s)));
+    return new TypeScriptRewriter(thriftFile.enums(), classes, thriftFile.jsNamespace(), includedNamespaces);
+  }
+
+  static List<String> composeTypeScriptImports(
+    ThriftFile thriftFile,
+    ThriftProject project,
+    String projectName
+  ) {
+    List<String> imports = new ArrayList<>();
+    for (Map.Entry<String, Set<String>> references : thriftFile.references().entrySet()) {
+      String includedNs = project.include(thriftFile, references.getKey()).jsNamespace();
+      imports.addAll(references.getValue().stream().map(symbol -> format(
+        "import { %s } from '%s/%s';",
+        symbol,
+        projectName,
+        includedNs
+      )).collect(toList()));
+    }
+    return imports;
+  }
+
+  /**
+   * Orders JavaScript or TypeScript files the way Thrift compiler generates
+   * them, types first and then services in order of declaration, whatever
+   * order file system lists them in
+   */
+  private static List<File> inGenerationOrder(Collection<File> files, ThriftFile thriftFile) {
+    String typesFile = FilenameUtils.getBaseName(thriftFile.file().getName()) + "_types";
+    List<String> services = new ArrayList<>(thriftFile.services());
+    Map<File, Integer> ranks = new HashMap<>();
+    for (File file : files) {
+      String name = file.getName().substring(0, file.getName().indexOf('.'));
+      int service = services.indexOf(name);
+      ranks.put(file, name.equals(typesFile) ? 0 : service >= 0 ? service + 1 : Integer.MAX_VALUE);
+    }
+    return files.stream()
+      .sorted(Comparator.comparing((File f) -> ranks.get(f)).thenComparing(File::getName))
+      .collect(toList());
+  }
+
+  private static String joinLines(Collection<String> strings) {
+    return join(format("%n"), strings);
+  }
+
+  private static Collection<File> listTypeScriptFiles(String path) {
+    return FileUtils.listFiles(
+      new File(path),
+      new String[]{"d.ts"},
+      true
+    );
+  }
+
+  private static Collection<File> listJavaFiles(String path) {
+    return FileUtils.listFiles(
+      new File(path),
+      new String[]{"java"},
+      true
+    );
+  }
+
+  private static Collection<File> listJavaScriptFiles(String path) {
+    return FileUtils.listFiles(
+      new File(path),
+      new String[]{"js"},
+      true
+    );
+  }
+
+  /**
+   * Copies file line by line, so only a line is kept in memory, every
+   * line is followed by line separator
+   */
+  private static void copyLines(File file, BufferedWriter writer) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        writer.write(line);
+        writer.newLine();
+      }
+    }
+  }
+
+  private static String findOrCreateDirectory(String jsNs, String thriftFilePath, String tempDir) {
+    String outputPath = format("%s/%s", tempDir, jsNs);
+    if (!new File(outputPath).exists()) {
+      if (!new File(outputPath).mkdirs()) {
+        throw new RuntimeException(
+          format(
+            "can't create directory %s for %s",
+            outputPath,
+            thriftFilePath
+          )
+        );
+      }
+    }
+    return outputPath;
+  }
+
+  /**
+   * Prepares scratch directory and makes sure generated source directories
+   * exist. Generated sources of previous generation are kept, so files
+   * which content doesn't change aren't touched
+   */
+  private static void initFsTree(String generatedSourceDir, String tempDir, Log log) {
+    if (FileUtils.deleteQuietly(new File(tempDir))) {
+      log.info(format("wiped temp directory %s", tempDir));
+    }
+    if (!new File(tempDir).mkdirs()) {
+      throw new RuntimeException(format("can't init temp directory at %s", tempDir));
+    }
+    initGeneratedSourceDirs(generatedSourceDir);
+  }
+
+  static void initGeneratedSourceDirs(String generatedSourceDir) {
+    for (String dir : new String[]{
+      generatedSourceDir,
+      javaGeneratedSourceDir(generatedSourceDir),
+      jsGeneratedSourceDir(generatedSourceDir),
+      tsGeneratedSourceDir(generatedSourceDir)}) {
+      if (!new File(dir).isDirectory() && !new File(dir).mkdirs()) {
+        throw new RuntimeException(format("can't init generated source directory at %s", dir));
+      }
+    }
+  }
+
+  private static String makeTypeScriptModuleDeclaration(String jsNs, String projectName) {
+    return format("declare module '%s/%s' {", projectName, jsNs);
+  }
+
+  private static String javaGeneratedSourceDir(String generatedSourceDir) {
+    return format("%s/java", generatedSourceDir);
+  }
+
+  static String jsGeneratedSourceDir(String generatedSourceDir) {
+    return format("%s/js", generatedSourceDir);
+  }
+
+  private static String tsGeneratedSourceDir(String generatedSourceDir) {
+    return format("%s/ts", generatedSourceDir);
+  }
+
+  static File bundleFile(String generatedSourceDir) {
+    return new File(format("%s/all.js", jsGeneratedSourceDir(generatedSourceDir)));
+  }
+
+  /**
+   * @return scratch directory for JavaScript modules merged into single
+   * bundle, name of the directory can't clash with a namespace
+   */
+  private static String jsModuleDir(String tempDir) {
+    return format("%s/js-modules", tempDir);
+  }
+
+  private static String importThriftAsModule() {
+    return "import Thrift from 'thrift/Thrift';";
+  }
+}
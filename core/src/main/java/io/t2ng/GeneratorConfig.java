@@ -0,0 +1,595 @@
+package io.t2ng;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+
+/**
+ * Options of generation, either read from command line arguments or
+ * built by embedding application
+ */
+public final class GeneratorConfig {
+
+  private static final long DEFAULT_THRIFT_TIMEOUT_SECONDS = 300;
+  private static final long DEFAULT_CACHE_SIZE_MB = 1024;
+
+  private final String projectName;
+  private final String inputDir;
+  private final String generatedSourceDir;
+  private final boolean mergeJsFiles;
+  private final boolean esModules;
+  private final boolean multiplex;
+  private final boolean angularServices;
+  private final boolean incremental;
+  private final boolean watch;
+  private final int workers;
+  private final boolean emitTypeScript;
+  private final boolean typeScriptOnly;
+  private final String thriftExecutable;
+  private final long thriftTimeoutMillis;
+  private final Optional<String> scratchDir;
+  private final Optional<String> cacheDir;
+  private final long cacheSizeBytes;
+  private final Optional<Shard> shard;
+  private final boolean profile;
+  private final Optional<String> profileJson;
+  private final Log log;
+
+  private GeneratorConfig(Builder builder) {
+    this.projectName = builder.projectName;
+    this.inputDir = builder.inputDir;
+    this.generatedSourceDir = builder.generatedSourceDir;
+    this.mergeJsFiles = builder.mergeJsFiles;
+    this.esModules = builder.esModules;
+    this.multiplex = builder.multiplex;
+    this.angularServices = builder.angularServices;
+    this.watch = builder.watch;
+    this.incremental = builder.watch || builder.incremental;
+    this.workers = builder.workers;
+    this.typeScriptOnly = builder.typeScriptOnly;
+    this.emitTypeScript = builder.typeScriptOnly || builder.emitTypeScript;
+    this.thriftExecutable = builder.thriftExecutable;
+    this.thriftTimeoutMillis = builder.thriftTimeoutMillis;
+    this.scratchDir = builder.scratchDir;
+    this.cacheDir = builder.cacheDir;
+    this.cacheSizeBytes = builder.cacheSizeBytes;
+    this.shard = builder.shard;
+    this.profile = builder.profile;
+    this.profileJson = builder.profileJson;
+    this.log = builder.log;
+  }
+
+  static GeneratorConfig fromArguments(String[] args) {
+    Builder builder = builder()
+      .projectName(resolveProjectName(args))
+      .inputDir(resolveInputDir(args))
+      .generatedSourceDir(resolveGeneratedSourceDir(args))
+      .mergeJsFiles(hasOption("-m", args))
+      .esModules(hasOption("--esm", args))
+      .multiplex(hasOption("--multiplex", args))
+      .angularServices(hasOption("--angular", args))
+      .watch(hasOption("--watch", args))
+      .incremental(hasOption("--incremental", args))
+      .workers(resolveWorkers(args))
+      .typeScriptOnly(hasOption("--ts-only", args))
+      .emitTypeScript(hasOption("--emit-ts", args))
+      .thriftExecutable(readArgument("--thrift", args).orElse("thrift"))
+      .thriftTimeout(resolveThriftTimeoutMillis(args), TimeUnit.MILLISECONDS)
+      .cacheSize(resolveCacheSizeBytes(args))
+      .profile(hasOption("--profile", args));
+    readArgument("--scratch-dir", args).ifPresent(builder::scratchDir);
+    readArgument("--cache-dir", args).ifPresent(builder::cacheDir);
+    readArgument("--profile-json", args).ifPresent(builder::profileJson);
+    readArgument("--shard", args).ifPresent(spec -> builder.shard = Optional.of(resolveShard(spec)));
+    return builder.build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  String projectName() {
+    return projectName;
+  }
+
+  String inputDir() {
+    return inputDir;
+  }
+
+  String generatedSourceDir() {
+    return generatedSourceDir;
+  }
+
+  boolean mergeJsFiles() {
+    return mergeJsFiles;
+  }
+
+  /**
+   * @return whether JavaScript modules are ES modules rather than CommonJS ones
+   */
+  boolean esModules() {
+    return esModules;
+  }
+
+  /**
+   * @return whether clients and processors of all services are wired to
+   * share single transport by multiplexed protocol
+   */
+  boolean multiplex() {
+    return multiplex;
+  }
+
+  /**
+   * @return whether Angular services wrapping clients are generated along
+   * with TypeScript declarations
+   */
+  boolean angularServices() {
+    return angularServices;
+  }
+
+  boolean incremental() {
+    return incremental;
+  }
+
+  /**
+   * @return whether generation is repeated on every change of input
+   * directory, implies incremental generation
+   */
+  boolean watch() {
+    return watch;
+  }
+
+  int workers() {
+    return workers;
+  }
+
+  /**
+   * @return whether TypeScript declarations are emitted from parsed IDL
+   * rather than adapted from {@code thrift --gen js:ts} output
+   */
+  boolean emitTypeScript() {
+    return emitTypeScript;
+  }
+
+  /**
+   * @return whether only TypeScript declarations are generated, so Thrift
+   * compiler is never run
+   */
+  boolean typeScriptOnly() {
+    return typeScriptOnly;
+  }
+
+  /**
+   * @return Thrift compiler to run, either a name looked up in PATH or a path
+   */
+  String thriftExecutable() {
+    return thriftExecutable;
+  }
+
+  /**
+   * @return how long single run of Thrift compiler may take
+   */
+  long thriftTimeoutMillis() {
+    return thriftTimeoutMillis;
+  }
+
+  /**
+   * @return directory to keep intermediate outputs of Thrift compiler in
+   */
+  Optional<String> scratchDir() {
+    return scratchDir;
+  }
+
+  /**
+   * @return directory of compile cache shared by generations, no cache when empty
+   */
+  Optional<String> cacheDir() {
+    return cacheDir;
+  }
+
+  /**
+   * @return size compile cache is kept within
+   */
+  long cacheSizeBytes() {
+    return cacheSizeBytes;
+  }
+
+  /**
+   * @return part of workspace to generate, the whole workspace when empty
+   */
+  Optional<Shard> shard() {
+    return shard;
+  }
+
+  /**
+   * @return whether time and counts of generation phases are printed
+   */
+  boolean profile() {
+    return profile;
+  }
+
+  /**
+   * @return file to write time and counts of generation phases to as JSON
+   */
+  Optional<String> profileJson() {
+    return profileJson;
+  }
+
+  /**
+   * @return sink of messages printed by generation
+   */
+  Log log() {
+    return log;
+  }
+
+  /**
+   * @return options affecting content of outputs, previous outputs are
+   * reused only when generated with the same options
+   */
+  String outputOptions() {
+    String angular = angularServices ? ",angular" : "";
+    if (typeScriptOnly) {
+      return format("ts-only%s", angular);
+    }
+    return format(
+      "%s%s%s%s",
+      emitTypeScript ? "emit-ts" : "default",
+      esModules ? ",esm" : "",
+      multiplex ? ",multiplex" : "",
+      angular
+    );
+  }
+
+  static boolean hasOption(String key, String[] args) {
+    return Arrays.stream(args).anyMatch(s -> s.equals(key));
+  }
+
+  private static int resolveWorkers(String[] args) {
+    Optional<String> maybeWorkers = readArgument("-j", args);
+    if (!maybeWorkers.isPresent()) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    try {
+      int workers = Integer.parseInt(maybeWorkers.get());
+      if (workers > 0) {
+        return workers;
+      }
+    } catch (NumberFormatException ignored) {
+    }
+    throw new IllegalArgumentException(format("invalid value %s for parameter -j", maybeWorkers.get()));
+  }
+
+  private static long resolveThriftTimeoutMillis(String[] args) {
+    Optional<String> maybeTimeout = readArgument("--thrift-timeout", args);
+    if (!maybeTimeout.isPresent()) {
+      return TimeUnit.SECONDS.toMillis(DEFAULT_THRIFT_TIMEOUT_SECONDS);
+    }
+    try {
+      long timeout = Long.parseLong(maybeTimeout.get());
+      if (timeout > 0) {
+        return TimeUnit.SECONDS.toMillis(timeout);
+      }
+    } catch (NumberFormatException ignored) {
+    }
+    throw new IllegalArgumentException(format("invalid value %s for parameter --thrift-timeout", maybeTimeout.get()));
+  }
+
+  private static long resolveCacheSizeBytes(String[] args) {
+    Optional<String> maybeSize = readArgument("--cache-size", args);
+    if (!maybeSize.isPresent()) {
+      return DEFAULT_CACHE_SIZE_MB * 1024 * 1024;
+    }
+    try {
+      long size = Long.parseLong(maybeSize.get());
+      if (size > 0) {
+        return size * 1024 * 1024;
+      }
+    } catch (NumberFormatException ignored) {
+    }
+    throw new IllegalArgumentException(format("invalid value %s for parameter --cache-size", maybeSize.get()));
+  }
+
+  private static Shard resolveShard(String spec) {
+    try {
+      return Shard.parse(spec);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(format("invalid value %s for parameter --shard", spec));
+    }
+  }
+
+  private static String resolveProjectName(String[] args) {
+    Optional<String> maybeProjectName = readArgument("-p", args);
+    if (maybeProjectName.isPresent()) {
+      return maybeProjectName.get();
+    }
+    throw new RuntimeException("project name must be specified. please use -p key");
+  }
+
+  private static String resolveInputDir(String[] args) {
+    Optional<String> maybeProjectName = readArgument("-i", args);
+    if (maybeProjectName.isPresent()) {
+      return maybeProjectName.get();
+    }
+    throw new RuntimeException("input directory must be specified. please use -i key");
+  }
+
+  private static String resolveGeneratedSourceDir(String[] args) {
+    Optional<String> maybeProjectName = readArgument("-s", args);
+    if (maybeProjectName.isPresent()) {
+      return maybeProjectName.get();
+    }
+    throw new RuntimeException("generated source directory must be specified. please use -s key");
+  }
+
+  static Optional<String> readArgument(
+    String key,
+    String[] args
+  ) {
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (key.equals(arg)) {
+        if (i + 1 <= args.length - 1) {
+          String value = args[i + 1];
+          if (value.startsWith("-")) {
+            throw new IllegalArgumentException(format("missed value for parameter %s", key));
+          }
+          return Optional.of(value);
+        } else {
+          throw new IllegalArgumentException(format("missed value for parameter %s", key));
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Builds options of generation. Project name, input directory and
+   * generated source directory are mandatory, the rest default to the
+   * same values as command line options
+   */
+  public static final class Builder {
+
+    private String projectName;
+    private String inputDir;
+    private String generatedSourceDir;
+    private boolean mergeJsFiles;
+    private boolean esModules;
+    private boolean multiplex;
+    private boolean angularServices;
+    private boolean incremental;
+    private boolean watch;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private boolean emitTypeScript;
+    private boolean typeScriptOnly;
+    private String thriftExecutable = "thrift";
+    private long thriftTimeoutMillis = TimeUnit.SECONDS.toMillis(DEFAULT_THRIFT_TIMEOUT_SECONDS);
+    private Optional<String> scratchDir = Optional.empty();
+    private Optional<String> cacheDir = Optional.empty();
+    private long cacheSizeBytes = DEFAULT_CACHE_SIZE_MB * 1024 * 1024;
+    private Optional<Shard> shard = Optional.empty();
+    private boolean profile;
+    private Optional<String> profileJson = Optional.empty();
+    private Log log = Log.STANDARD;
+
+    private Builder() {
+    }
+
+    /**
+     * @param projectName prefix of generated module names
+     */
+    public Builder projectName(String projectName) {
+      this.projectName = projectName;
+      return this;
+    }
+
+    /**
+     * @param inputDir directory with Thrift files
+     */
+    public Builder inputDir(String inputDir) {
+      this.inputDir = inputDir;
+      return this;
+    }
+
+    /**
+     * @param generatedSourceDir directory for generated sources
+     */
+    public Builder generatedSourceDir(String generatedSourceDir) {
+      this.generatedSourceDir = generatedSourceDir;
+      return this;
+    }
+
+    /**
+     * @param mergeJsFiles whether JavaScript modules are merged into {@code js/all.js}
+     */
+    public Builder mergeJsFiles(boolean mergeJsFiles) {
+      this.mergeJsFiles = mergeJsFiles;
+      return this;
+    }
+
+    /**
+     * @param esModules whether JavaScript modules are ES modules rather than CommonJS ones
+     */
+    public Builder esModules(boolean esModules) {
+      this.esModules = esModules;
+      return this;
+    }
+
+    /**
+     * @param multiplex whether clients of all services share single
+     *                  transport and processors of them are registered
+     *                  in single multiplexed processor
+     */
+    public Builder multiplex(boolean multiplex) {
+      this.multiplex = multiplex;
+      return this;
+    }
+
+    /**
+     * @param angularServices whether {@code @Injectable} services wrapping
+     *                        clients are generated into {@code ts/}
+     */
+    public Builder angularServices(boolean angularServices) {
+      this.angularServices = angularServices;
+      return this;
+    }
+
+    /**
+     * @param incremental whether only files changed since previous generation are regenerated
+     */
+    public Builder incremental(boolean incremental) {
+      this.incremental = incremental;
+      return this;
+    }
+
+    Builder watch(boolean watch) {
+      this.watch = watch;
+      return this;
+    }
+
+    /**
+     * @param workers number of files compiled concurrently
+     */
+    public Builder workers(int workers) {
+      this.workers = workers;
+      return this;
+    }
+
+    /**
+     * @param emitTypeScript whether TypeScript declarations are emitted from parsed IDL
+     */
+    public Builder emitTypeScript(boolean emitTypeScript) {
+      this.emitTypeScript = emitTypeScript;
+      return this;
+    }
+
+    /**
+     * @param typeScriptOnly whether only TypeScript declarations are generated
+     */
+    public Builder typeScriptOnly(boolean typeScriptOnly) {
+      this.typeScriptOnly = typeScriptOnly;
+      return this;
+    }
+
+    /**
+     * @param thriftExecutable Thrift compiler, either a name looked up in PATH or a path
+     */
+    public Builder thriftExecutable(String thriftExecutable) {
+      this.thriftExecutable = thriftExecutable;
+      return this;
+    }
+
+    public Builder thriftTimeout(long timeout, TimeUnit unit) {
+      this.thriftTimeoutMillis = unit.toMillis(timeout);
+      return this;
+    }
+
+    /**
+     * @param scratchDir directory to keep intermediate outputs of Thrift compiler in
+     */
+    public Builder scratchDir(String scratchDir) {
+      this.scratchDir = Optional.of(scratchDir);
+      return this;
+    }
+
+    /**
+     * @param cacheDir directory of compile cache shared by generations, e.g. of several workspaces
+     */
+    public Builder cacheDir(String cacheDir) {
+      this.cacheDir = Optional.of(cacheDir);
+      return this;
+    }
+
+    /**
+     * @param bytes size compile cache is kept within, least recently used entries are evicted
+     */
+    public Builder cacheSize(long bytes) {
+      this.cacheSizeBytes = bytes;
+      return this;
+    }
+
+    /**
+     * Generates only shard {@code index} of {@code count} of the workspace,
+     * shards are combined by {@code merge} command afterwards
+     *
+     * @param index 1-based number of the shard
+     */
+    public Builder shard(int index, int count) {
+      this.shard = Optional.of(Shard.of(index, count));
+      return this;
+    }
+
+    /**
+     * @param profile whether time and counts of generation phases are printed
+     */
+    public Builder profile(boolean profile) {
+      this.profile = profile;
+      return this;
+    }
+
+    /**
+     * @param profileJson file to write time and counts of generation phases to as JSON
+     */
+    public Builder profileJson(String profileJson) {
+      this.profileJson = Optional.of(profileJson);
+      return this;
+    }
+
+    /**
+     * Routes messages of generation to the application, e.g. to its build
+     * log, instead of standard output and error streams
+     *
+     * @param info progress and figures of generation
+     * @param warn failures and problems of Thrift files
+     */
+    public Builder log(Consumer<String> info, Consumer<String> warn) {
+      this.log = new Log(info, warn);
+      return this;
+    }
+
+    public GeneratorConfig build() {
+      if (projectName == null || projectName.isEmpty()) {
+        throw new IllegalArgumentException("project name must be specified");
+      }
+      if (inputDir == null) {
+        throw new IllegalArgumentException("input directory must be specified");
+      }
+      if (generatedSourceDir == null) {
+        throw new IllegalArgumentException("generated source directory must be specified");
+      }
+      if (workers < 1) {
+        throw new IllegalArgumentException(format("invalid number of workers %d", workers));
+      }
+      if (thriftTimeoutMillis < 1) {
+        throw new IllegalArgumentException(format("invalid Thrift compiler timeout %d ms", thriftTimeoutMillis));
+      }
+      if (cacheSizeBytes < 1) {
+        throw new IllegalArgumentException(format("invalid compile cache size %d bytes", cacheSizeBytes));
+      }
+      if (typeScriptOnly && mergeJsFiles) {
+        throw new IllegalArgumentException("JavaScript modules can't be merged when only TypeScript is generated");
+      }
+      if (watch && mergeJsFiles) {
+        throw new IllegalArgumentException("JavaScript modules can't be merged in watch mode");
+      }
+      if (esModules && mergeJsFiles) {
+        throw new IllegalArgumentException("ES modules can't be merged into single file");
+      }
+      if (shard.isPresent() && mergeJsFiles) {
+        throw new IllegalArgumentException("JavaScript modules of shard can't be merged, merge shards instead");
+      }
+      if (shard.isPresent() && watch) {
+        throw new IllegalArgumentException("shard can't be generated in watch mode");
+      }
+      if (multiplex && mergeJsFiles) {
+        throw new IllegalArgumentException("multiplexed clients can't be merged into single file");
+      }
+      if (multiplex && typeScriptOnly) {
+        throw new IllegalArgumentException("multiplexed processors can't be generated when only TypeScript is generated");
+      }
+      return new GeneratorConfig(this);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package io.t2ng;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches input directory tree for changes of Thrift files. Directories
+ * created later are watched as well, bursts of events, e.g. editor saving
+ * a file in several steps, are reported at once
+ */
+final class InputWatcher implements Closeable {
+
+  private static final long DEBOUNCE_MILLIS = 100;
+
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> directories = new HashMap<>();
+
+  InputWatcher(Path root) throws IOException {
+    this.watchService = FileSystems.getDefault().newWatchService();
+    register(root.toAbsolutePath());
+  }
+
+  /**
+   * Blocks till a Thrift file or directory changes and no more events come
+   * during debounce period. Changes of other files are skipped
+   */
+  void awaitChanges() throws InterruptedException, IOException {
+    while (true) {
+      boolean changed = false;
+      WatchKey key = watchService.take();
+      while (key != null) {
+        changed |= collect(key);
+        key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+      }
+      if (changed) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  /**
+   * @return whether the key has events of Thrift files or directories, or lost events
+   */
+  private boolean collect(WatchKey key) throws IOException {
+    Path directory = directories.get(key);
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW || directory == null) {
+        changed = true;
+        continue;
+      }
+      Path path = directory.resolve((Path) event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        try {
+          register(path);
+        } catch (NoSuchFileException ignored) {/*removed meanwhile*/
+        }
+        changed = true;
+      } else if (path.getFileName().toString().endsWith(".thrift")) {
+        changed = true;
+      }
+    }
+    if (!key.reset()) {
+      directories.remove(key);
+      changed |= directory != null;
+    }
+    return changed;
+  }
+
+  private void register(Path start) throws IOException {
+    Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+}
@@ -0,0 +1,377 @@
+package io.t2ng;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Wraps JavaScript output of Thrift compiler into CommonJS module. Every
+ * definition, e.g. {@code a.b.S = function(args) {...}} along with its
+ * prototype, becomes self-contained {@code exports.S = (function () {...})()}.
+ * Argument and result types of service methods are kept private to the
+ * client of the service. Namespace objects are declared locally with own
+ * namespace bound to {@code exports}, so references to other definitions
+ * resolve when used.
+ * <p>
+ * Thrift output is split into top level statements by single pass over
+ * its characters, tracking nesting of brackets, strings and comments, and
+ * only statements of one definition are kept in memory at a time. Thrift
+ * compiler writes every statement from the first column and a statement
+ * ends with the line which closes all its brackets with {@code ;} or
+ * {@code }}, which is all the splitting relies on
+ */
+final class JavaScriptModuleTransformer {
+
+  private static final String CLIENT_SUFFIX = "Client";
+  private static final String INHERITS = "Thrift.inherits(";
+  private static final String NAMESPACE_GUARD = "if (typeof ";
+
+  private final ThriftFile thriftFile;
+  private final String jsNs;
+  private final String prefix;
+  private final Set<String> services;
+
+  JavaScriptModuleTransformer(ThriftFile thriftFile) {
+    this.thriftFile = thriftFile;
+    this.jsNs = thriftFile.jsNamespace();
+    this.prefix = jsNs + ".";
+    this.services = thriftFile.services();
+  }
+
+  /**
+   * @return lines going before Thrift code: requires and declarations of namespace objects
+   */
+  List<String> header(ThriftProject project, String projectName) {
+    List<String> lines = new ArrayList<>();
+    lines.add("var Thrift = require('thrift/Thrift');");
+    NamespaceTree root = new NamespaceTree();
+    for (ThriftFile include : project.includes(thriftFile)) {
+      String includeNs = include.jsNamespace();
+      if (!includeNs.equals(jsNs)) {
+        root.node(includeNs).bind(format("require('%s/%s')", projectName, includeNs));
+      }
+    }
+    root.node(jsNs).bindOwn("exports");
+    for (Map.Entry<String, NamespaceTree> node : root.roots().entrySet()) {
+      lines.add(format("var %s = %s;", node.getKey(), node.getValue().render()));
+    }
+    return lines;
+  }
+
+  /**
+   * Transforms single output file of Thrift compiler
+   */
+  void transform(BufferedReader reader, BufferedWriter writer) throws IOException {
+    Lexer lexer = new Lexer();
+    StringBuilder statement = new StringBuilder();
+    Definition definition = null;
+    List<String> trivia = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (statement.length() == 0 && !lexer.inComment() && isTrivia(line)) {
+        trivia.add(line);
+        continue;
+      }
+      statement.append(line).append(System.lineSeparator());
+      if (!lexer.endsStatement(line)) {
+        continue;
+      }
+      String text = statement.toString();
+      statement.setLength(0);
+      String name = definedName(text);
+      if (definition != null && (name == null || !definition.key.equals(key(name)))) {
+        definition.writeTo(writer);
+        definition = null;
+      }
+      if (name == null) {
+        writeLines(trivia, writer);
+        if (!isNamespaceGuard(text)) {
+          writer.write(text);
+        }
+      } else {
+        if (definition == null) {
+          writeLines(trivia, writer);
+          definition = new Definition(key(name), exportedName(name));
+        } else {
+          trivia.forEach(definition::addTrivia);
+        }
+        definition.add(text, name);
+      }
+      trivia.clear();
+    }
+    if (definition != null) {
+      definition.writeTo(writer);
+    }
+    writer.write(statement.toString());
+    writeLines(trivia, writer);
+  }
+
+  /**
+   * @return name of definition the statement belongs to, e.g. {@code S} for
+   * {@code a.b.S.prototype.read = ...}, or {@code null} for anything else
+   */
+  private String definedName(String text) {
+    if (text.startsWith(prefix)) {
+      return identifier(text, prefix.length());
+    }
+    if (text.startsWith(INHERITS) && text.startsWith(prefix, INHERITS.length())) {
+      return identifier(text, INHERITS.length() + prefix.length());
+    }
+    return null;
+  }
+
+  /**
+   * @return service of argument and result types and client of the
+   * service, so they are wrapped together, name of definition otherwise
+   */
+  private String key(String name) {
+    for (int i = name.indexOf('_'); i > 0; i = name.indexOf('_', i + 1)) {
+      if (services.contains(name.substring(0, i))) {
+        return name.substring(0, i);
+      }
+    }
+    if (name.endsWith(CLIENT_SUFFIX) && services.contains(name.substring(0, name.length() - CLIENT_SUFFIX.length()))) {
+      return name.substring(0, name.length() - CLIENT_SUFFIX.length());
+    }
+    return name;
+  }
+
+  private String exportedName(String name) {
+    String key = key(name);
+    return services.contains(key) ? key + CLIENT_SUFFIX : key;
+  }
+
+  /**
+   * Declarations of namespace objects, e.g. {@code if (typeof a === 'undefined')},
+   * are left out as namespaces are declared by header
+   */
+  private boolean isNamespaceGuard(String text) {
+    if (!text.startsWith(NAMESPACE_GUARD)) {
+      return false;
+    }
+    String guarded = identifierPath(text, NAMESPACE_GUARD.length());
+    return jsNs.equals(guarded) || jsNs.startsWith(guarded + ".");
+  }
+
+  private static boolean isTrivia(String line) {
+    String trimmed = line.trim();
+    return trimmed.isEmpty() || trimmed.startsWith("//");
+  }
+
+  private static void writeLines(List<String> lines, BufferedWriter writer) throws IOException {
+    for (String line : lines) {
+      writer.write(line);
+      writer.newLine();
+    }
+  }
+
+  private static String identifier(String text, int start) {
+    int end = start;
+    while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+      end++;
+    }
+    return text.substring(start, end);
+  }
+
+  private static String identifierPath(String text, int start) {
+    int end = start;
+    while (end < text.length() && (Character.isJavaIdentifierPart(text.charAt(end)) || text.charAt(end) == '.')) {
+      end++;
+    }
+    return text.substring(start, end);
+  }
+
+  /**
+   * Statements of one definition, with blank lines and comments between them
+   */
+  private final class Definition {
+
+    private final String key;
+    private final String exportedName;
+    private final List<String> parts = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+
+    private Definition(String key, String exportedName) {
+      this.key = key;
+      this.exportedName = exportedName;
+    }
+
+    private void addTrivia(String line) {
+      parts.add(line + System.lineSeparator());
+    }
+
+    private void add(String text, String name) {
+      parts.add(text);
+      int end = prefix.length() + name.length();
+      if (text.startsWith(prefix) && isAssignment(text, end)) {
+        names.add(name);
+      }
+    }
+
+    /**
+     * Writes statements wrapped into function returning the exported
+     * definition, with namespace dropped from references to definitions of
+     * the function. Statements not defining the exported name, e.g. of a
+     * definition Thrift compiler split, are written as they are, as own
+     * namespace is bound to exports anyway
+     */
+    private void writeTo(BufferedWriter writer) throws IOException {
+      if (!names.contains(exportedName)) {
+        for (String part : parts) {
+          writer.write(part);
+        }
+        return;
+      }
+      writer.write(format("exports.%s = (function () {", exportedName));
+      writer.newLine();
+      for (String part : parts) {
+        if (part.startsWith(prefix)) {
+          String name = identifier(part, prefix.length());
+          if (names.contains(name) && isAssignment(part, prefix.length() + name.length())) {
+            writer.write("var ");
+          }
+        }
+        writer.write(localize(part));
+      }
+      writer.write(format("return %s;", exportedName));
+      writer.newLine();
+      writer.write("})();");
+      writer.newLine();
+    }
+
+    /**
+     * @return the statement with {@code a.b.} dropped from names defined
+     * by this definition, outside of strings and comments
+     */
+    private String localize(String text) {
+      StringBuilder result = new StringBuilder(text.length());
+      Lexer lexer = new Lexer();
+      int i = 0;
+      while (i < text.length()) {
+        if (lexer.isCode()
+          && text.startsWith(prefix, i)
+          && (i == 0 || !isPartOfPath(text.charAt(i - 1)))) {
+          String name = identifier(text, i + prefix.length());
+          if (names.contains(name)) {
+            result.append(name);
+            i += prefix.length() + name.length();
+            continue;
+          }
+        }
+        lexer.next(text, i);
+        result.append(text.charAt(i));
+        i++;
+      }
+      return result.toString();
+    }
+  }
+
+  private static boolean isPartOfPath(char c) {
+    return Character.isJavaIdentifierPart(c) || c == '.';
+  }
+
+  /**
+   * @return whether the text assigns to the path ending at the position, e.g. {@code a.b.S = }
+   */
+  private static boolean isAssignment(String text, int end) {
+    int i = end;
+    while (i < text.length() && text.charAt(i) == ' ') {
+      i++;
+    }
+    return i < text.length() && text.charAt(i) == '=' && (i + 1 == text.length() || text.charAt(i + 1) != '=');
+  }
+
+  /**
+   * Tracks nesting of brackets, strings and comments of JavaScript code
+   * character by character
+   */
+  private static final class Lexer {
+
+    private int depth;
+    private char quote;
+    private boolean escaped;
+    private boolean blockComment;
+    private boolean lineComment;
+    private boolean skip;
+    private char previous;
+
+    /**
+     * @return whether the next character is code, neither string nor comment
+     */
+    private boolean isCode() {
+      return quote == 0 && !blockComment && !lineComment;
+    }
+
+    private boolean inComment() {
+      return blockComment;
+    }
+
+    /**
+     * Consumes the line
+     *
+     * @return whether the line completes a top level statement
+     */
+    private boolean endsStatement(String line) {
+      char last = 0;
+      for (int i = 0; i < line.length(); i++) {
+        boolean code = isCode();
+        next(line, i);
+        char c = line.charAt(i);
+        if (code && isCode() && !Character.isWhitespace(c)) {
+          last = c;
+        }
+      }
+      lineComment = false;
+      if (quote != '`') {
+        quote = 0;
+      }
+      return depth == 0 && quote == 0 && !blockComment && (last == ';' || last == '}');
+    }
+
+    /**
+     * Consumes character at the position
+     */
+    private void next(String text, int i) {
+      char c = text.charAt(i);
+      if (skip) {
+        skip = false;
+      } else if (lineComment) {
+        if (c == '\n') {
+          lineComment = false;
+        }
+      } else if (blockComment) {
+        if (c == '/' && previous == '*') {
+          blockComment = false;
+        }
+        previous = c;
+      } else if (quote != 0) {
+        if (escaped) {
+          escaped = false;
+        } else if (c == '\\') {
+          escaped = true;
+        } else if (c == quote || (c == '\n' && quote != '`')) {
+          quote = 0;
+        }
+      } else if (c == '/' && i + 1 < text.length() && text.charAt(i + 1) == '/') {
+        lineComment = true;
+      } else if (c == '/' && i + 1 < text.length() && text.charAt(i + 1) == '*') {
+        blockComment = true;
+        skip = true;
+        previous = 0;
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '{' || c == '(' || c == '[') {
+        depth++;
+      } else if (c == '}' || c == ')' || c == ']') {
+        depth--;
+      }
+    }
+  }
+}
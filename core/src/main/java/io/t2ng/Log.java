@@ -0,0 +1,36 @@
+package io.t2ng;
+
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sink of messages printed by generation. Command line prints them to
+ * standard streams, embedding application may route them to its own log
+ */
+final class Log {
+
+  static final Log STANDARD = new Log(System.out::println, System.err::println);
+
+  private final Consumer<String> info;
+  private final Consumer<String> warn;
+
+  Log(Consumer<String> info, Consumer<String> warn) {
+    this.info = requireNonNull(info);
+    this.warn = requireNonNull(warn);
+  }
+
+  /**
+   * Progress and figures of generation
+   */
+  void info(String message) {
+    info.accept(message);
+  }
+
+  /**
+   * Failures and problems of Thrift files which don't stop generation
+   */
+  void warn(String message) {
+    warn.accept(message);
+  }
+}
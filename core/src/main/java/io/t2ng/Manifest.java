@@ -0,0 +1,193 @@
+package io.t2ng;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptySet;
+
+/**
+ * Keeps content hash, resolved includes and produced outputs of every
+ * input Thrift file, so next run is able to regenerate only files which
+ * have been changed since. Paths of inputs are relative to input directory,
+ * paths of outputs are relative to generated source directory
+ */
+final class Manifest {
+
+  private static final String FILE_NAME = ".t2ng-manifest";
+
+  private final String projectName;
+  private final String options;
+  private final Map<String, String> hashes = new TreeMap<>();
+  private final Map<String, Set<String>> includes = new TreeMap<>();
+  private final Map<String, Set<String>> outputs = new TreeMap<>();
+  private final Set<String> projectOutputs = new TreeSet<>();
+  private String shard;
+  private int workspaceFiles;
+  private String workspace;
+
+  Manifest(String projectName, String options) {
+    this.projectName = projectName;
+    this.options = options;
+  }
+
+  static Optional<Manifest> read(String generatedSourceDir, Log log) {
+    Path path = location(generatedSourceDir);
+    if (!Files.exists(path)) {
+      return Optional.empty();
+    }
+    Manifest manifest = null;
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] columns = line.split("\t");
+        if (columns.length == 3 && columns[0].equals("project")) {
+          manifest = new Manifest(columns[1], columns[2]);
+        } else if (manifest != null && columns.length == 3 && columns[0].equals("input")) {
+          manifest.hashes.put(columns[1], columns[2]);
+        } else if (manifest != null && columns.length == 3 && columns[0].equals("include")) {
+          manifest.includes.computeIfAbsent(columns[1], k -> new TreeSet<>()).add(columns[2]);
+        } else if (manifest != null && columns.length == 3 && columns[0].equals("output")) {
+          manifest.outputs.computeIfAbsent(columns[1], k -> new TreeSet<>()).add(columns[2]);
+        } else if (manifest != null && columns.length == 4 && columns[0].equals("shard") && columns[2].matches("\\d+")) {
+          manifest.shard(columns[1], Integer.parseInt(columns[2]), columns[3]);
+        } else if (manifest != null && columns.length == 2 && columns[0].equals("project-output")) {
+          manifest.projectOutputs.add(columns[1]);
+        } else {
+          log.info(format("ignored malformed manifest %s", path));
+          return Optional.empty();
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(format("can't read manifest %s", path), e);
+    }
+    return Optional.ofNullable(manifest);
+  }
+
+  void write(String generatedSourceDir) {
+    Path path = location(generatedSourceDir);
+    try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      writer.write(format("project\t%s\t%s%n", projectName, options));
+      if (shard != null) {
+        writer.write(format("shard\t%s\t%d\t%s%n", shard, workspaceFiles, workspace));
+      }
+      for (String output : projectOutputs) {
+        writer.write(format("project-output\t%s%n", output));
+      }
+      for (Map.Entry<String, String> entry : hashes.entrySet()) {
+        String input = entry.getKey();
+        writer.write(format("input\t%s\t%s%n", input, entry.getValue()));
+        for (String include : includes(input)) {
+          writer.write(format("include\t%s\t%s%n", input, include));
+        }
+        for (String output : outputs(input)) {
+          writer.write(format("output\t%s\t%s%n", input, output));
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(format("can't write manifest %s", path), e);
+    }
+  }
+
+  String projectName() {
+    return projectName;
+  }
+
+  /**
+   * @return options outputs have been generated with
+   */
+  String options() {
+    return options;
+  }
+
+  /**
+   * Marks outputs as shard of generation of a workspace
+   *
+   * @param shard          shard as {@code i/n}
+   * @param workspaceFiles number of Thrift files of the whole workspace
+   * @param workspace      fingerprint of the whole workspace
+   */
+  void shard(String shard, int workspaceFiles, String workspace) {
+    this.shard = shard;
+    this.workspaceFiles = workspaceFiles;
+    this.workspace = workspace;
+  }
+
+  /**
+   * @return shard as {@code i/n}, if outputs are shard of generation
+   */
+  Optional<String> shard() {
+    return Optional.ofNullable(shard);
+  }
+
+  int workspaceFiles() {
+    return workspaceFiles;
+  }
+
+  String workspace() {
+    return workspace;
+  }
+
+  Set<String> inputs() {
+    return hashes.keySet();
+  }
+
+  String hash(String input) {
+    return hashes.get(input);
+  }
+
+  Set<String> includes(String input) {
+    return includes.getOrDefault(input, emptySet());
+  }
+
+  Set<String> outputs(String input) {
+    return outputs.getOrDefault(input, emptySet());
+  }
+
+  /**
+   * @return outputs of all the inputs and of the project
+   */
+  Set<String> outputs() {
+    Set<String> all = new TreeSet<>(projectOutputs);
+    outputs.values().forEach(all::addAll);
+    return all;
+  }
+
+  /**
+   * @return outputs generated from the whole project rather than from an input
+   */
+  Set<String> projectOutputs() {
+    return projectOutputs;
+  }
+
+  void putProjectOutput(String output) {
+    projectOutputs.add(output);
+  }
+
+  void put(String input, String hash, Set<String> includes, Set<String> outputs) {
+    hashes.put(input, hash);
+    this.includes.put(input, new TreeSet<>(includes));
+    this.outputs.put(input, new TreeSet<>(outputs));
+  }
+
+  private static Path location(String generatedSourceDir) {
+    return Paths.get(generatedSourceDir, FILE_NAME);
+  }
+
+  static String relativePath(String root, File file) {
+    Path rootPath = Paths.get(root).toAbsolutePath().normalize();
+    Path filePath = file.toPath().toAbsolutePath().normalize();
+    return rootPath.relativize(filePath).toString().replace(File.separatorChar, '/');
+  }
+}
@@ -0,0 +1,209 @@
+package io.t2ng;
+
+import io.t2ng.ThriftDocument.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Wiring of all services of the project behind single endpoint. Front end
+ * gets module creating clients of every service over one shared transport,
+ * calls of each client are tagged with name of its service by Thrift
+ * multiplexed protocol. Back end gets helper registering processors of
+ * the services under the same names in {@code TMultiplexedProcessor}.
+ * Services are registered by their names, so names have to be unique
+ * within the project
+ */
+final class MultiplexedServices {
+
+  /**
+   * Name of the module, can't clash with a namespace
+   */
+  static final String MODULE = "multiplexed-clients";
+  static final String JAVA_CLASS = "MultiplexedProcessors";
+
+  private final String projectName;
+  private final Map<String, Entry> services;
+
+  private MultiplexedServices(String projectName, Map<String, Entry> services) {
+    this.projectName = projectName;
+    this.services = services;
+  }
+
+  static MultiplexedServices of(Collection<ThriftFile> thriftFiles, String projectName) {
+    Map<String, Entry> services = new TreeMap<>();
+    for (ThriftFile thriftFile : thriftFiles) {
+      for (Service service : thriftFile.document().definitions(Service.class)) {
+        Entry entry = new Entry(service.name(), thriftFile);
+        Entry other = services.put(service.name(), entry);
+        if (other != null) {
+          throw new RuntimeException(format(
+            "service %s is defined in both %s and %s, multiplexed services need unique names",
+            service.name(),
+            other.thriftFile.file().getPath(),
+            thriftFile.file().getPath()
+          ));
+        }
+      }
+    }
+    return new MultiplexedServices(projectName, services);
+  }
+
+  /**
+   * @return lines of CommonJS module
+   */
+  List<String> commonJsModule() {
+    List<String> lines = new ArrayList<>();
+    lines.add("var Thrift = require('thrift/Thrift');");
+    lines.add("exports.createClients = function (transport) {");
+    lines.add("  var multiplexer = new Thrift.Multiplexer();");
+    lines.add("  return {");
+    List<String> clients = new ArrayList<>();
+    for (Entry service : services.values()) {
+      clients.add(format(
+        "    %s: multiplexer.createClient('%s', require('%s/%s').%sClient, transport)",
+        service.name,
+        service.name,
+        projectName,
+        service.thriftFile.jsNamespace(),
+        service.name
+      ));
+    }
+    lines.add(String.join(format(",%n"), clients));
+    lines.add("  };");
+    lines.add("};");
+    return lines;
+  }
+
+  /**
+   * @return lines of ES module
+   */
+  List<String> esModule() {
+    List<String> lines = new ArrayList<>();
+    lines.add("import Thrift from 'thrift/Thrift';");
+    lines.addAll(imports());
+    lines.add("export function createClients(transport) {");
+    lines.add("  var multiplexer = new Thrift.Multiplexer();");
+    lines.add("  return {");
+    List<String> clients = new ArrayList<>();
+    for (Entry service : services.values()) {
+      clients.add(format("    %s: multiplexer.createClient('%s', %sClient, transport)", service.name, service.name, service.name));
+    }
+    lines.add(String.join(format(",%n"), clients));
+    lines.add("  };");
+    lines.add("}");
+    return lines;
+  }
+
+  /**
+   * @return lines of TypeScript declaration of the module
+   */
+  List<String> typeScriptDeclaration() {
+    List<String> lines = new ArrayList<>();
+    lines.add(format("declare module '%s/%s' {", projectName, MODULE));
+    lines.add("import Thrift from 'thrift/Thrift';");
+    lines.addAll(imports());
+    lines.add("export interface MultiplexedClients {");
+    for (Entry service : services.values()) {
+      lines.add(format("%s: %sClient;", service.name, service.name));
+    }
+    lines.add("}");
+    lines.add("export function createClients(transport: Thrift.Transport): MultiplexedClients;");
+    lines.add("}");
+    return lines;
+  }
+
+  /**
+   * @return package of Java helper, the longest package every service is
+   * generated in or below, empty for default package
+   */
+  String javaPackage() {
+    String common = null;
+    for (Entry service : services.values()) {
+      String javaNs = service.javaNamespace().orElse("");
+      if (common == null) {
+        common = javaNs;
+        continue;
+      }
+      while (!common.isEmpty() && !javaNs.equals(common) && !javaNs.startsWith(common + ".")) {
+        int dot = common.lastIndexOf('.');
+        common = dot < 0 ? "" : common.substring(0, dot);
+      }
+    }
+    return common == null ? "" : common;
+  }
+
+  /**
+   * @return lines of Java helper
+   */
+  List<String> javaSource() {
+    List<String> lines = new ArrayList<>();
+    String javaPackage = javaPackage();
+    if (!javaPackage.isEmpty()) {
+      lines.add(format("package %s;", javaPackage));
+      lines.add("");
+    }
+    lines.add("import org.apache.thrift.TMultiplexedProcessor;");
+    lines.add("");
+    lines.add("/**");
+    lines.add(format(" * Registers processors of services of %s, so all of them are served behind one endpoint.", projectName));
+    lines.add(format(" * Services are registered by the same names clients of {@code %s/%s} use", projectName, MODULE));
+    lines.add(" */");
+    lines.add(format("public final class %s {", JAVA_CLASS));
+    lines.add("");
+    lines.add("  private final TMultiplexedProcessor processor = new TMultiplexedProcessor();");
+    for (Entry service : services.values()) {
+      String type = service.javaNamespace().map(ns -> format("%s.%s", ns, service.name)).orElse(service.name);
+      lines.add("");
+      lines.add(format("  public %s register%s(%s.Iface handler) {", JAVA_CLASS, service.name, type));
+      lines.add(format(
+        "    processor.registerProcessor(\"%s\", new %s.Processor<%s.Iface>(handler));",
+        service.name,
+        type,
+        type
+      ));
+      lines.add("    return this;");
+      lines.add("  }");
+    }
+    lines.add("");
+    lines.add("  public TMultiplexedProcessor processor() {");
+    lines.add("    return processor;");
+    lines.add("  }");
+    lines.add("}");
+    return lines;
+  }
+
+  private List<String> imports() {
+    List<String> lines = new ArrayList<>();
+    for (Entry service : services.values()) {
+      lines.add(format(
+        "import { %sClient } from '%s/%s';",
+        service.name,
+        projectName,
+        service.thriftFile.jsNamespace()
+      ));
+    }
+    return lines;
+  }
+
+  private static final class Entry {
+
+    private final String name;
+    private final ThriftFile thriftFile;
+
+    private Entry(String name, ThriftFile thriftFile) {
+      this.name = name;
+      this.thriftFile = thriftFile;
+    }
+
+    private Optional<String> javaNamespace() {
+      return Optional.ofNullable(thriftFile.document().namespaces().get("java"));
+    }
+  }
+}
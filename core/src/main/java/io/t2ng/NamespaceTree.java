@@ -0,0 +1,79 @@
+package io.t2ng;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.lang.String.join;
+
+/**
+ * Dotted namespaces of a module as nested object literals, so Thrift code
+ * referring to {@code a.b.S} finds namespace objects declared locally.
+ * Part of namespace is either bound to another module, bound to own
+ * definitions of the module or an object holding nested namespaces
+ */
+final class NamespaceTree {
+
+  private String binding;
+  private boolean own;
+  private final Map<String, NamespaceTree> children = new LinkedHashMap<>();
+
+  /**
+   * @return node of the namespace, created along with its parents when missing
+   */
+  NamespaceTree node(String jsNs) {
+    NamespaceTree node = this;
+    for (String part : jsNs.split("\\.")) {
+      node = node.children.computeIfAbsent(part, k -> new NamespaceTree());
+    }
+    return node;
+  }
+
+  /**
+   * @param binding expression of imported module
+   */
+  void bind(String binding) {
+    this.binding = binding;
+    this.own = false;
+  }
+
+  /**
+   * @param binding object definitions of the module are added to, e.g. {@code exports}
+   */
+  void bindOwn(String binding) {
+    this.binding = binding;
+    this.own = true;
+  }
+
+  /**
+   * @return top level namespaces
+   */
+  Map<String, NamespaceTree> roots() {
+    return children;
+  }
+
+  /**
+   * Imported module namespace object can't be extended, so it's copied
+   * when other namespaces are nested into it. Own definitions are added
+   * after the namespace is declared, so nested namespaces inherit from
+   * the object of own definitions instead of copying it
+   */
+  String render() {
+    if (children.isEmpty()) {
+      return binding == null ? "{}" : binding;
+    }
+    List<String> properties = new ArrayList<>();
+    for (Map.Entry<String, NamespaceTree> child : children.entrySet()) {
+      properties.add(format("%s: %s", child.getKey(), child.getValue().render()));
+    }
+    String object = format("{ %s }", join(", ", properties));
+    if (binding == null) {
+      return object;
+    }
+    return own
+      ? format("Object.assign(Object.create(%s), %s)", binding, object)
+      : format("Object.assign({}, %s, %s)", binding, object);
+  }
+}
@@ -0,0 +1,213 @@
+package io.t2ng;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Commits generated files to destination directories. Every file is
+ * written once, to a hidden sibling temp file, and then atomically moved
+ * over the target, so readers never see partially written output and
+ * nothing is left behind on failure. Targets which already have the same
+ * content are left untouched, so watchers of generated sources see
+ * changes only
+ */
+final class OutputFiles {
+
+  /**
+   * Returned instead of number of written bytes when target already had the same content
+   */
+  static final long UNCHANGED = -1;
+
+  private OutputFiles() {
+  }
+
+  interface Content {
+    void writeTo(BufferedWriter writer) throws IOException;
+  }
+
+  /**
+   * @return number of bytes written or {@link #UNCHANGED}
+   */
+  static long write(Path target, Content content) throws IOException {
+    Path temp = createSiblingTempFile(target);
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        content.writeTo(writer);
+      }
+      return commitIfChanged(temp, target);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Writes content of the sources one after another into the target,
+   * through file channels, so no content is kept in memory
+   *
+   * @return number of bytes written or {@link #UNCHANGED}
+   */
+  static long concatenate(Path target, Collection<Path> sources) throws IOException {
+    Path temp = createSiblingTempFile(target);
+    try {
+      try (FileChannel channel = FileChannel.open(temp, WRITE)) {
+        for (Path source : sources) {
+          try (FileChannel sourceChannel = FileChannel.open(source, READ)) {
+            long position = 0;
+            long count = sourceChannel.size();
+            while (position < count) {
+              position += sourceChannel.transferTo(position, count - position, channel);
+            }
+          }
+        }
+      }
+      return commitIfChanged(temp, target);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Moves file, e.g. produced by Thrift compiler in scratch directory, to
+   * the target. A file of other file system is copied next to the target
+   * first. The source is removed anyway
+   *
+   * @return number of bytes moved or {@link #UNCHANGED}
+   */
+  static long move(Path source, Path target) throws IOException {
+    long size = Files.size(source);
+    if (sameContent(source, target)) {
+      Files.delete(source);
+      return UNCHANGED;
+    }
+    try {
+      Files.move(source, target, ATOMIC_MOVE);
+      return size;
+    } catch (AtomicMoveNotSupportedException ignored) {
+    }
+    Path temp = createSiblingTempFile(target);
+    try {
+      try (OutputStream output = Files.newOutputStream(temp)) {
+        Files.copy(source, output);
+      }
+      commit(temp, target);
+      Files.delete(source);
+      return size;
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Copies file, e.g. cached output, to the target
+   *
+   * @return number of bytes copied or {@link #UNCHANGED}
+   */
+  static long copy(Path source, Path target) throws IOException {
+    Path temp = createSiblingTempFile(target);
+    try {
+      try (OutputStream output = Files.newOutputStream(temp)) {
+        Files.copy(source, output);
+      }
+      return commitIfChanged(temp, target);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static Path createSiblingTempFile(Path target) throws IOException {
+    Path parent = target.toAbsolutePath().getParent();
+    if (!Files.isDirectory(parent)) {
+      try {
+        Files.createDirectories(parent);
+      } catch (IOException e) {
+        throw new RuntimeException(format("can't create directory %s for %s", parent, target.getFileName()), e);
+      }
+    }
+    while (true) {
+      Path temp = parent.resolve(format(".%s.%s.tmp", target.getFileName(), Long.toUnsignedString(ThreadLocalRandom.current().nextLong())));
+      try {
+        Files.createFile(temp);
+      } catch (FileAlreadyExistsException e) {
+        continue;
+      }
+      copyPermissions(target, temp);
+      return temp;
+    }
+  }
+
+  /**
+   * Temp file is created with default permissions of the process, rather
+   * than owner only ones of {@link Files#createTempFile}, so outputs stay
+   * readable by others. When target exists, its permissions are kept
+   */
+  private static void copyPermissions(Path target, Path temp) throws IOException {
+    if (!Files.isRegularFile(target)) {
+      return;
+    }
+    PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+    if (view != null) {
+      Files.setPosixFilePermissions(temp, view.readAttributes().permissions());
+    }
+  }
+
+  private static long commitIfChanged(Path temp, Path target) throws IOException {
+    if (sameContent(temp, target)) {
+      return UNCHANGED;
+    }
+    long size = Files.size(temp);
+    commit(temp, target);
+    return size;
+  }
+
+  private static void commit(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, REPLACE_EXISTING);
+    }
+  }
+
+  private static boolean sameContent(Path file, Path target) throws IOException {
+    if (!Files.isRegularFile(target) || Files.size(file) != Files.size(target)) {
+      return false;
+    }
+    return Arrays.equals(sha256(file), sha256(target));
+  }
+
+  private static byte[] sha256(Path file) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    byte[] buffer = new byte[8192];
+    try (InputStream input = Files.newInputStream(file)) {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return digest.digest();
+  }
+}
@@ -0,0 +1,204 @@
+package io.t2ng;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Time and number of runs of every phase of single generation, bytes
+ * read and written and number of started processes. Phases run by
+ * workers are summed over all the workers, so they may take longer than
+ * the whole generation
+ */
+final class Profile {
+
+  private final long started = System.nanoTime();
+  private final Map<String, Phase> phases = new LinkedHashMap<>();
+  private final AtomicLong bytesRead = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private final AtomicLong changedOutputs = new AtomicLong();
+  private final AtomicLong unchangedOutputs = new AtomicLong();
+  private final AtomicLong removedOutputs = new AtomicLong();
+  private final AtomicLong processes = new AtomicLong();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
+  private final AtomicLong cacheEvictions = new AtomicLong();
+  private long wallNanos = -1;
+
+  void record(String phase, long nanos) {
+    synchronized (phases) {
+      phases.computeIfAbsent(phase, k -> new Phase()).add(nanos);
+    }
+  }
+
+  void read(long bytes) {
+    bytesRead.addAndGet(bytes);
+  }
+
+  /**
+   * @param written number of bytes written to output file or {@link OutputFiles#UNCHANGED}
+   */
+  void output(long written) {
+    if (written == OutputFiles.UNCHANGED) {
+      unchangedOutputs.incrementAndGet();
+    } else {
+      changedOutputs.incrementAndGet();
+      bytesWritten.addAndGet(written);
+    }
+  }
+
+  void removed(long outputs) {
+    removedOutputs.addAndGet(outputs);
+  }
+
+  /**
+   * @return summary of changes of generated sources
+   */
+  String outputs() {
+    return format(
+      "%d files changed, %d untouched, %d removed",
+      changedOutputs.get(),
+      unchangedOutputs.get(),
+      removedOutputs.get()
+    );
+  }
+
+  void cache(long hits, long misses, long evictions) {
+    cacheHits.addAndGet(hits);
+    cacheMisses.addAndGet(misses);
+    cacheEvictions.addAndGet(evictions);
+  }
+
+  /**
+   * @return summary of use of compile cache
+   */
+  String cache() {
+    return format(
+      "compile cache: %d hits, %d misses, %d evicted",
+      cacheHits.get(),
+      cacheMisses.get(),
+      cacheEvictions.get()
+    );
+  }
+
+  void processesStarted(long count) {
+    processes.addAndGet(count);
+  }
+
+  /**
+   * Stops the clock of the whole generation
+   */
+  void finish() {
+    wallNanos = System.nanoTime() - started;
+  }
+
+  List<String> summary() {
+    List<String> lines = new ArrayList<>();
+    lines.add(format("generation took %d ms", TimeUnit.NANOSECONDS.toMillis(wallNanos())));
+    for (Map.Entry<String, Phase> phase : phases().entrySet()) {
+      lines.add(format(
+        "  %-56s %6d runs %10d ms",
+        phase.getKey(),
+        phase.getValue().count,
+        TimeUnit.NANOSECONDS.toMillis(phase.getValue().nanos)
+      ));
+    }
+    lines.add(format("  %d bytes read, %d bytes written, %d processes started",
+      bytesRead.get(), bytesWritten.get(), processes.get()));
+    lines.add(format("  %s", outputs()));
+    if (cacheHits.get() + cacheMisses.get() > 0) {
+      lines.add(format("  %s", cache()));
+    }
+    return lines;
+  }
+
+  void writeJson(Path path) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      writer.write("{");
+      writer.newLine();
+      writer.write(format("  \"wallNanos\": %d,", wallNanos()));
+      writer.newLine();
+      writer.write("  \"phases\": {");
+      writer.newLine();
+      List<String> entries = new ArrayList<>();
+      for (Map.Entry<String, Phase> phase : phases().entrySet()) {
+        entries.add(format(
+          "    \"%s\": {\"count\": %d, \"nanos\": %d}",
+          escape(phase.getKey()),
+          phase.getValue().count,
+          phase.getValue().nanos
+        ));
+      }
+      writer.write(String.join(format(",%n"), entries));
+      if (!entries.isEmpty()) {
+        writer.newLine();
+      }
+      writer.write("  },");
+      writer.newLine();
+      writer.write(format("  \"bytesRead\": %d,", bytesRead.get()));
+      writer.newLine();
+      writer.write(format("  \"bytesWritten\": %d,", bytesWritten.get()));
+      writer.newLine();
+      writer.write(format("  \"processes\": %d,", processes.get()));
+      writer.newLine();
+      writer.write(format("  \"changedOutputs\": %d,", changedOutputs.get()));
+      writer.newLine();
+      writer.write(format("  \"unchangedOutputs\": %d,", unchangedOutputs.get()));
+      writer.newLine();
+      writer.write(format("  \"removedOutputs\": %d,", removedOutputs.get()));
+      writer.newLine();
+      writer.write(format("  \"cacheHits\": %d,", cacheHits.get()));
+      writer.newLine();
+      writer.write(format("  \"cacheMisses\": %d,", cacheMisses.get()));
+      writer.newLine();
+      writer.write(format("  \"cacheEvictions\": %d", cacheEvictions.get()));
+      writer.newLine();
+      writer.write("}");
+      writer.newLine();
+    }
+  }
+
+  private long wallNanos() {
+    return wallNanos < 0 ? System.nanoTime() - started : wallNanos;
+  }
+
+  private Map<String, Phase> phases() {
+    synchronized (phases) {
+      Map<String, Phase> copy = new LinkedHashMap<>();
+      phases.forEach((name, phase) -> copy.put(name, phase.copy()));
+      return copy;
+    }
+  }
+
+  private static String escape(String s) {
+    return s.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private static final class Phase {
+
+    private long count;
+    private long nanos;
+
+    private void add(long nanos) {
+      this.count++;
+      this.nanos += nanos;
+    }
+
+    private Phase copy() {
+      Phase copy = new Phase();
+      copy.count = count;
+      copy.nanos = nanos;
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package io.t2ng;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptySet;
+
+/**
+ * Part {@code i} of {@code n} of Thrift files of a workspace. Files of
+ * the same JavaScript namespace go to the same shard, as they share
+ * outputs, so outputs of shards never overlap. Namespaces are spread
+ * over shards by their weight, size of their files along with size of
+ * everything the files include, as the compiler parses includes as well.
+ * The heaviest namespace goes first to the lightest shard, ties are
+ * broken by name, so every shard of the same workspace gets the same
+ * split
+ */
+final class Shard {
+
+  private final int index;
+  private final int count;
+
+  private Shard(int index, int count) {
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * @param index 1-based number of the shard
+   */
+  static Shard of(int index, int count) {
+    if (count < 1 || index < 1 || index > count) {
+      throw new IllegalArgumentException(format("invalid shard %d/%d", index, count));
+    }
+    return new Shard(index, count);
+  }
+
+  /**
+   * @param spec shard as {@code i/n}, e.g. {@code 2/4}
+   */
+  static Shard parse(String spec) {
+    String[] parts = spec.split("/");
+    if (parts.length == 2) {
+      try {
+        return of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+      } catch (IllegalArgumentException ignored) {
+      }
+    }
+    throw new IllegalArgumentException(format("invalid shard %s, expected i/n, e.g. 2/4", spec));
+  }
+
+  int index() {
+    return index;
+  }
+
+  int count() {
+    return count;
+  }
+
+  /**
+   * @return files of this shard, in order of the project
+   */
+  List<ThriftFile> select(List<ThriftFile> thriftFiles, Map<ThriftFile, Set<ThriftFile>> includeGraph, String inputDir) {
+    Map<String, List<ThriftFile>> namespaces = new TreeMap<>();
+    for (ThriftFile thriftFile : thriftFiles) {
+      namespaces.computeIfAbsent(namespace(thriftFile, inputDir), k -> new ArrayList<>()).add(thriftFile);
+    }
+    Map<ThriftFile, Long> weights = new HashMap<>();
+    Map<String, Long> namespaceWeights = new HashMap<>();
+    for (Map.Entry<String, List<ThriftFile>> namespace : namespaces.entrySet()) {
+      long weight = 0;
+      for (ThriftFile thriftFile : namespace.getValue()) {
+        weight += weight(thriftFile, includeGraph, weights);
+      }
+      namespaceWeights.put(namespace.getKey(), weight);
+    }
+    List<String> heaviestFirst = new ArrayList<>(namespaces.keySet());
+    heaviestFirst.sort(Comparator.comparing((String ns) -> namespaceWeights.get(ns)).reversed()
+      .thenComparing(Comparator.naturalOrder()));
+    long[] loads = new long[count];
+    Set<ThriftFile> selected = new HashSet<>();
+    for (String namespace : heaviestFirst) {
+      int lightest = 0;
+      for (int i = 1; i < count; i++) {
+        if (loads[i] < loads[lightest]) {
+          lightest = i;
+        }
+      }
+      loads[lightest] += namespaceWeights.get(namespace);
+      if (lightest == index - 1) {
+        selected.addAll(namespaces.get(namespace));
+      }
+    }
+    List<ThriftFile> files = new ArrayList<>();
+    for (ThriftFile thriftFile : thriftFiles) {
+      if (selected.contains(thriftFile)) {
+        files.add(thriftFile);
+      }
+    }
+    return files;
+  }
+
+  /**
+   * @return SHA-256 of paths and content hashes of all the files, shards
+   * are merged only when split from the same workspace
+   */
+  static String fingerprint(List<ThriftFile> thriftFiles, String inputDir) {
+    Map<String, String> hashes = new TreeMap<>();
+    for (ThriftFile thriftFile : thriftFiles) {
+      hashes.put(Manifest.relativePath(inputDir, thriftFile.file()), thriftFile.hash());
+    }
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    for (Map.Entry<String, String> hash : hashes.entrySet()) {
+      digest.update(format("%s\t%s\n", hash.getKey(), hash.getValue()).getBytes(StandardCharsets.UTF_8));
+    }
+    StringBuilder fingerprint = new StringBuilder();
+    for (byte b : digest.digest()) {
+      fingerprint.append(format("%02x", b));
+    }
+    return fingerprint.toString();
+  }
+
+  /**
+   * @return JavaScript namespace, or path for a file without one, such a
+   * file fails in whichever shard it goes to
+   */
+  private static String namespace(ThriftFile thriftFile, String inputDir) {
+    try {
+      return thriftFile.jsNamespace();
+    } catch (RuntimeException e) {
+      return Manifest.relativePath(inputDir, thriftFile.file());
+    }
+  }
+
+  /**
+   * @return size of the file along with sizes of all the files it includes, directly or not
+   */
+  private static long weight(
+    ThriftFile thriftFile,
+    Map<ThriftFile, Set<ThriftFile>> includeGraph,
+    Map<ThriftFile, Long> weights
+  ) {
+    Long known = weights.get(thriftFile);
+    if (known != null) {
+      return known;
+    }
+    Set<ThriftFile> visited = new HashSet<>();
+    List<ThriftFile> pending = new ArrayList<>();
+    pending.add(thriftFile);
+    long weight = 0;
+    while (!pending.isEmpty()) {
+      ThriftFile file = pending.remove(pending.size() - 1);
+      if (visited.add(file)) {
+        weight += file.size();
+        pending.addAll(includeGraph.getOrDefault(file, emptySet()));
+      }
+    }
+    weights.put(thriftFile, weight);
+    return weight;
+  }
+
+  @Override
+  public String toString() {
+    return format("%d/%d", index, count);
+  }
+}
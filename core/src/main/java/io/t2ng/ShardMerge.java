@@ -0,0 +1,172 @@
+package io.t2ng;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Combines shards generated by {@code --shard i/n} into generated sources
+ * of the whole workspace, the same as single generation would produce.
+ * Shards are merged only when they are all the shards of the same
+ * workspace generated with the same options, each Thrift file is
+ * generated by exactly one of them and no output is produced by two of
+ * them. JavaScript modules may be merged into {@code js/all.js} here, in
+ * the same order as single generation does
+ */
+final class ShardMerge {
+
+  private static final String JS_DIR = "js/";
+
+  private ShardMerge() {
+  }
+
+  /**
+   * @param args {@code -s <dir> --shards <dir>,<dir>... [-m] [--profile]}
+   */
+  static void main(String[] args) throws IOException {
+    String generatedSourceDir = GeneratorConfig.readArgument("-s", args)
+      .orElseThrow(() -> new RuntimeException("generated source directory must be specified. please use -s key"));
+    String shardDirs = GeneratorConfig.readArgument("--shards", args)
+      .orElseThrow(() -> new RuntimeException("directories of shards must be specified. please use --shards key"));
+    Profile profile = new Profile();
+    Log log = Log.STANDARD;
+    try {
+      merge(Arrays.asList(shardDirs.split(",")), generatedSourceDir, GeneratorConfig.hasOption("-m", args), profile, log);
+    } finally {
+      profile.finish();
+      if (GeneratorConfig.hasOption("--profile", args)) {
+        profile.summary().forEach(log::info);
+      }
+    }
+  }
+
+  static void merge(
+    List<String> shardDirs,
+    String generatedSourceDir,
+    boolean mergeJsFiles,
+    Profile profile,
+    Log log
+  ) throws IOException {
+    long started = System.nanoTime();
+    Map<String, Manifest> shards = readShards(shardDirs, log);
+    Manifest first = shards.values().iterator().next();
+    Manifest merged = new Manifest(first.projectName(), first.options());
+    Map<String, String> producers = new HashMap<>();
+    Map<String, String> inputShards = new HashMap<>();
+    for (Map.Entry<String, Manifest> shard : shards.entrySet()) {
+      Manifest manifest = shard.getValue();
+      for (String input : manifest.inputs()) {
+        if (merged.hash(input) != null) {
+          throw new RuntimeException(format("%s is generated by more than one shard", input));
+        }
+        inputShards.put(input, shard.getKey());
+        Set<String> outputs = new TreeSet<>();
+        for (String output : manifest.outputs(input)) {
+          String producer = producers.putIfAbsent(output, shard.getKey());
+          if (producer != null && !producer.equals(shard.getKey())) {
+            throw new RuntimeException(format("%s is produced by shards in %s and %s", output, producer, shard.getKey()));
+          }
+          if (!mergeJsFiles || !output.startsWith(JS_DIR)) {
+            outputs.add(output);
+          }
+        }
+        merged.put(input, manifest.hash(input), manifest.includes(input), outputs);
+      }
+      for (String output : manifest.projectOutputs()) {
+        String producer = producers.putIfAbsent(output, shard.getKey());
+        if (producer != null) {
+          throw new RuntimeException(format("%s is produced by shards in %s and %s", output, producer, shard.getKey()));
+        }
+        merged.putProjectOutput(output);
+      }
+    }
+    if (merged.inputs().size() != first.workspaceFiles()) {
+      throw new RuntimeException(format(
+        "shards generated %d of %d Thrift files, regenerate failed shards",
+        merged.inputs().size(),
+        first.workspaceFiles()
+      ));
+    }
+    profile.record("merge check", System.nanoTime() - started);
+    started = System.nanoTime();
+    Generator.initGeneratedSourceDirs(generatedSourceDir);
+    Set<String> outputs = merged.outputs();
+    for (String output : outputs) {
+      Path source = Paths.get(producers.get(output), output);
+      profile.output(OutputFiles.copy(source, Paths.get(generatedSourceDir, output)));
+    }
+    profile.record("copy", System.nanoTime() - started);
+    Set<String> known = new HashSet<>(outputs);
+    if (mergeJsFiles) {
+      started = System.nanoTime();
+      Path bundle = Generator.bundleFile(generatedSourceDir).toPath();
+      Map<String, Path> modules = new LinkedHashMap<>();
+      Map<String, Set<String>> includeGraph = new HashMap<>();
+      merged.inputs().forEach(input -> includeGraph.put(input, merged.includes(input)));
+      for (String input : Generator.sortByIncludes(merged.inputs(), includeGraph, Function.identity())) {
+        for (String output : shards.get(inputShards.get(input)).outputs(input)) {
+          if (output.startsWith(JS_DIR)) {
+            modules.putIfAbsent(output, Paths.get(producers.get(output), output));
+          }
+        }
+      }
+      profile.output(OutputFiles.concatenate(bundle, modules.values()));
+      profile.record("merge", System.nanoTime() - started);
+      log.info(format("merged %d JavaScript modules into %s", modules.size(), bundle));
+      known.add(Manifest.relativePath(generatedSourceDir, bundle.toFile()));
+    }
+    merged.write(generatedSourceDir);
+    profile.removed(Generator.removeUnknownOutputs(generatedSourceDir, known));
+    log.info(format("merged %d shards of %d Thrift files", shards.size(), merged.inputs().size()));
+    log.info(profile.outputs());
+  }
+
+  /**
+   * @return manifests of shards by their directories, in order of shards
+   */
+  private static Map<String, Manifest> readShards(List<String> shardDirs, Log log) {
+    Map<Integer, String> dirs = new TreeMap<>();
+    Map<String, Manifest> manifests = new HashMap<>();
+    Manifest first = null;
+    String firstDir = null;
+    for (String dir : shardDirs) {
+      Manifest manifest = Manifest.read(dir, log)
+        .orElseThrow(() -> new RuntimeException(format("can't find manifest of shard in %s", dir)));
+      if (!manifest.shard().isPresent()) {
+        throw new RuntimeException(format("%s isn't generated with --shard", dir));
+      }
+      Shard shard = Shard.parse(manifest.shard().get());
+      if (shard.count() != shardDirs.size()) {
+        throw new RuntimeException(format("%s has shard %s, but %d shards are given", dir, shard, shardDirs.size()));
+      }
+      String other = dirs.put(shard.index(), dir);
+      if (other != null) {
+        throw new RuntimeException(format("%s and %s have the same shard %s", other, dir, shard));
+      }
+      if (first == null) {
+        first = manifest;
+        firstDir = dir;
+      } else if (!manifest.projectName().equals(first.projectName())
+        || !manifest.options().equals(first.options())
+        || !manifest.workspace().equals(first.workspace())) {
+        throw new RuntimeException(format("%s and %s are shards of different workspaces, projects or options", firstDir, dir));
+      }
+      manifests.put(dir, manifest);
+    }
+    Map<String, Manifest> shards = new LinkedHashMap<>();
+    dirs.values().forEach(dir -> shards.put(dir, manifests.get(dir)));
+    return shards;
+  }
+}
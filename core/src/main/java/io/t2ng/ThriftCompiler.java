@@ -0,0 +1,308 @@
+package io.t2ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Runs Thrift compiler. All the generators of a file are run by single
+ * process writing into {@code gen-<language>} directories, output of the
+ * process is drained while it runs and kept as diagnostics, every
+ * invocation is limited in time and recorded
+ */
+final class ThriftCompiler {
+
+  private static final int REPORTED_DIAGNOSTIC_LINES = 20;
+  private static final int KEPT_OUTPUT_BYTES = 64 * 1024;
+
+  private final String executable;
+  private final List<String> includeDirs;
+  private final long timeoutMillis;
+  private final Queue<Invocation> invocations = new ConcurrentLinkedQueue<>();
+  private final AtomicLong processes = new AtomicLong();
+
+  ThriftCompiler(String executable, List<String> includeDirs, long timeoutMillis) {
+    this.executable = executable;
+    this.includeDirs = unmodifiableList(new ArrayList<>(includeDirs));
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * @param outputDir  directory to put {@code gen-<language>} directories to
+   * @param generators generator options, e.g. {@code java:beans} or {@code js:ts}
+   */
+  Invocation compile(File file, String outputDir, List<String> generators) throws IOException, InterruptedException {
+    String thriftFilePath = file.getAbsolutePath();
+    List<String> command = new ArrayList<>();
+    command.add(executable);
+    for (String includeDir : includeDirs) {
+      command.add("-I");
+      command.add(includeDir);
+    }
+    command.add("-o");
+    command.add(outputDir);
+    for (String generator : generators) {
+      command.add("--gen");
+      command.add(generator);
+    }
+    command.add(thriftFilePath);
+    long started = System.nanoTime();
+    Process process;
+    try {
+      process = new ProcessBuilder(command).redirectErrorStream(true).start();
+      processes.incrementAndGet();
+    } catch (IOException e) {
+      throw new RuntimeException(format("can't run Thrift compiler %s: %s", executable, e.getMessage()), e);
+    }
+    long spawned = System.nanoTime();
+    Drain drain = new Drain(process.getInputStream());
+    drain.start();
+    if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+      process.destroyForcibly().waitFor();
+      long killed = System.nanoTime();
+      drain.join(TimeUnit.SECONDS.toMillis(1));
+      Invocation invocation = new Invocation(
+        file,
+        generators,
+        process.exitValue(),
+        true,
+        drain.output(),
+        spawned - started,
+        killed - spawned
+      );
+      invocations.add(invocation);
+      throw new RuntimeException(format(
+        "can't compile Thrift file %s: compiler timed out after %d ms%n%s",
+        thriftFilePath,
+        timeoutMillis,
+        lastLines(invocation.diagnostics())
+      ));
+    }
+    drain.join();
+    Invocation invocation = new Invocation(
+      file,
+      generators,
+      process.exitValue(),
+      false,
+      drain.output(),
+      spawned - started,
+      System.nanoTime() - spawned
+    );
+    invocations.add(invocation);
+    if (invocation.exitCode() != 0) {
+      throw new RuntimeException(format(
+        "can't compile Thrift file %s: compiler exited with code %d%n%s",
+        thriftFilePath,
+        invocation.exitCode(),
+        lastLines(invocation.diagnostics())
+      ));
+    }
+    return invocation;
+  }
+
+  /**
+   * @return first line printed by {@code thrift -version}, empty when
+   * compiler can't be run or doesn't tell its version
+   */
+  Optional<String> version() throws InterruptedException {
+    Process process;
+    try {
+      process = new ProcessBuilder(executable, "-version").redirectErrorStream(true).start();
+      processes.incrementAndGet();
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+    Drain drain = new Drain(process.getInputStream());
+    drain.start();
+    if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+      process.destroyForcibly().waitFor();
+      return Optional.empty();
+    }
+    drain.join();
+    String output = drain.output();
+    if (process.exitValue() != 0 || output.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(output.split("\\r?\\n")[0]);
+  }
+
+  /**
+   * @return completed invocations, including ones killed on timeout, in
+   * order of completion
+   */
+  Collection<Invocation> invocations() {
+    return unmodifiableList(new ArrayList<>(invocations));
+  }
+
+  /**
+   * @return number of started processes, including version queries and
+   * runs killed on timeout or failed
+   */
+  long processesStarted() {
+    return processes.get();
+  }
+
+  private static String lastLines(String diagnostics) {
+    String[] lines = diagnostics.split("\\r?\\n");
+    if (lines.length <= REPORTED_DIAGNOSTIC_LINES) {
+      return diagnostics;
+    }
+    return format(
+      "... %d lines skipped%n%s",
+      lines.length - REPORTED_DIAGNOSTIC_LINES,
+      String.join(format("%n"), Arrays.asList(lines).subList(lines.length - REPORTED_DIAGNOSTIC_LINES, lines.length))
+    );
+  }
+
+  /**
+   * Outcome of single compiler run
+   */
+  static final class Invocation {
+
+    private final File file;
+    private final List<String> generators;
+    private final int exitCode;
+    private final boolean timedOut;
+    private final String diagnostics;
+    private final long spawnNanos;
+    private final long runNanos;
+
+    private Invocation(
+      File file,
+      List<String> generators,
+      int exitCode,
+      boolean timedOut,
+      String diagnostics,
+      long spawnNanos,
+      long runNanos
+    ) {
+      this.file = file;
+      this.generators = unmodifiableList(new ArrayList<>(generators));
+      this.exitCode = exitCode;
+      this.timedOut = timedOut;
+      this.diagnostics = diagnostics;
+      this.spawnNanos = spawnNanos;
+      this.runNanos = runNanos;
+    }
+
+    File file() {
+      return file;
+    }
+
+    List<String> generators() {
+      return generators;
+    }
+
+    int exitCode() {
+      return exitCode;
+    }
+
+    /**
+     * @return whether the process was killed on timeout, exit code is
+     * the one of killed process then
+     */
+    boolean timedOut() {
+      return timedOut;
+    }
+
+    /**
+     * @return stdout and stderr of compiler, the last 64 KB of them at most
+     */
+    String diagnostics() {
+      return diagnostics;
+    }
+
+    /**
+     * @return time taken to start the process
+     */
+    long spawnNanos() {
+      return spawnNanos;
+    }
+
+    /**
+     * @return time from start of the process till its exit or kill
+     */
+    long runNanos() {
+      return runNanos;
+    }
+  }
+
+  /**
+   * Reads process output while it runs, so the process never blocks on
+   * full pipe. Only the tail of output is kept, diagnostics of verbose
+   * compiler don't pile up in memory
+   */
+  private static final class Drain extends Thread {
+
+    private final InputStream input;
+    /**
+     * Ring buffer of the last bytes read
+     */
+    private final byte[] tail = new byte[KEPT_OUTPUT_BYTES];
+    private long total;
+
+    private Drain(InputStream input) {
+      this.input = input;
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      byte[] buffer = new byte[8192];
+      try (InputStream in = input) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          synchronized (tail) {
+            int offset = (int) (total % tail.length);
+            int first = Math.min(read, tail.length - offset);
+            System.arraycopy(buffer, 0, tail, offset, first);
+            System.arraycopy(buffer, first, tail, 0, read - first);
+            total += read;
+          }
+        }
+      } catch (IOException ignored) {
+      }
+    }
+
+    /**
+     * @return kept output, starting with the first whole line when the
+     * beginning of output is dropped
+     */
+    private String output() {
+      synchronized (tail) {
+        int kept = (int) Math.min(total, tail.length);
+        byte[] bytes = new byte[kept];
+        int offset = (int) ((total - kept) % tail.length);
+        int first = Math.min(kept, tail.length - offset);
+        System.arraycopy(tail, offset, bytes, 0, first);
+        System.arraycopy(tail, 0, bytes, first, kept - first);
+        if (total <= tail.length) {
+          return new String(bytes, StandardCharsets.UTF_8).trim();
+        }
+        int start = 0;
+        while (start < kept && bytes[start] != '\n') {
+          start++;
+        }
+        start = Math.min(start + 1, kept);
+        return format(
+          "... %d bytes skipped%n%s",
+          total - kept + start,
+          new String(bytes, start, kept - start, StandardCharsets.UTF_8).trim()
+        );
+      }
+    }
+  }
+}
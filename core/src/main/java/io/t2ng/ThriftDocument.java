@@ -0,0 +1,318 @@
+package io.t2ng;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Definitions of Thrift IDL file as parsed by {@link ThriftParser}
+ */
+final class ThriftDocument {
+
+  private final Map<String, String> namespaces;
+  private final List<String> includes;
+  private final List<Definition> definitions;
+
+  ThriftDocument(Map<String, String> namespaces, List<String> includes, List<Definition> definitions) {
+    this.namespaces = unmodifiableMap(new LinkedHashMap<>(namespaces));
+    this.includes = unmodifiableList(new ArrayList<>(includes));
+    this.definitions = unmodifiableList(new ArrayList<>(definitions));
+  }
+
+  /**
+   * @return namespaces by scope, e.g. {@code js} or {@code java}
+   */
+  Map<String, String> namespaces() {
+    return namespaces;
+  }
+
+  /**
+   * @return names of included files without .thrift extension, in order of declaration
+   */
+  List<String> includes() {
+    return includes;
+  }
+
+  /**
+   * @return definitions in order of declaration
+   */
+  List<Definition> definitions() {
+    return definitions;
+  }
+
+  Optional<Definition> definition(String name) {
+    return definitions.stream().filter(d -> d.name().equals(name)).findFirst();
+  }
+
+  <T extends Definition> List<T> definitions(Class<T> kind) {
+    List<T> result = new ArrayList<>();
+    for (Definition definition : definitions) {
+      if (kind.isInstance(definition)) {
+        result.add(kind.cast(definition));
+      }
+    }
+    return result;
+  }
+
+  abstract static class Definition {
+
+    private final String name;
+    private final Map<String, String> annotations;
+
+    Definition(String name, Map<String, String> annotations) {
+      this.name = name;
+      this.annotations = unmodifiableMap(new LinkedHashMap<>(annotations));
+    }
+
+    String name() {
+      return name;
+    }
+
+    Map<String, String> annotations() {
+      return annotations;
+    }
+  }
+
+  /**
+   * Reference to a type: base type, container or, possibly qualified by
+   * include name, user defined type
+   */
+  static final class Type {
+
+    private final String name;
+    private final List<Type> arguments;
+
+    Type(String name, List<Type> arguments) {
+      this.name = name;
+      this.arguments = unmodifiableList(new ArrayList<>(arguments));
+    }
+
+    String name() {
+      return name;
+    }
+
+    List<Type> arguments() {
+      return arguments;
+    }
+
+    boolean isBase() {
+      switch (name) {
+        case "void":
+        case "bool":
+        case "byte":
+        case "i8":
+        case "i16":
+        case "i32":
+        case "i64":
+        case "double":
+        case "string":
+        case "binary":
+        case "slist":
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    boolean isContainer() {
+      return name.equals("list") || name.equals("set") || name.equals("map");
+    }
+
+    @Override
+    public String toString() {
+      if (arguments.isEmpty()) {
+        return name;
+      }
+      StringBuilder result = new StringBuilder(name).append('<');
+      for (int i = 0; i < arguments.size(); i++) {
+        result.append(i > 0 ? "," : "").append(arguments.get(i));
+      }
+      return result.append('>').toString();
+    }
+  }
+
+  static final class Field {
+
+    private final int id;
+    private final String name;
+    private final Type type;
+    private final boolean optional;
+
+    Field(int id, String name, Type type, boolean optional) {
+      this.id = id;
+      this.name = name;
+      this.type = type;
+      this.optional = optional;
+    }
+
+    int id() {
+      return id;
+    }
+
+    String name() {
+      return name;
+    }
+
+    Type type() {
+      return type;
+    }
+
+    boolean isOptional() {
+      return optional;
+    }
+  }
+
+  static final class Typedef extends Definition {
+
+    private final Type type;
+
+    Typedef(String name, Type type, Map<String, String> annotations) {
+      super(name, annotations);
+      this.type = type;
+    }
+
+    Type type() {
+      return type;
+    }
+  }
+
+  static final class Const extends Definition {
+
+    private final Type type;
+
+    Const(String name, Type type) {
+      super(name, emptyMap());
+      this.type = type;
+    }
+
+    Type type() {
+      return type;
+    }
+  }
+
+  static final class Enum extends Definition {
+
+    private final Map<String, Integer> values;
+
+    Enum(String name, Map<String, Integer> values, Map<String, String> annotations) {
+      super(name, annotations);
+      this.values = unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * @return values in order of declaration
+     */
+    Map<String, Integer> values() {
+      return values;
+    }
+  }
+
+  /**
+   * Struct, union or exception
+   */
+  static final class Struct extends Definition {
+
+    private final String kind;
+    private final List<Field> fields;
+
+    Struct(String kind, String name, List<Field> fields, Map<String, String> annotations) {
+      super(name, annotations);
+      this.kind = kind;
+      this.fields = unmodifiableList(new ArrayList<>(fields));
+    }
+
+    /**
+     * @return {@code struct}, {@code union} or {@code exception}
+     */
+    String kind() {
+      return kind;
+    }
+
+    boolean isException() {
+      return kind.equals("exception");
+    }
+
+    List<Field> fields() {
+      return fields;
+    }
+  }
+
+  static final class Function {
+
+    private final String name;
+    private final Type returnType;
+    private final List<Field> arguments;
+    private final List<Field> exceptions;
+    private final boolean oneway;
+    private final Map<String, String> annotations;
+
+    Function(
+      String name,
+      Type returnType,
+      List<Field> arguments,
+      List<Field> exceptions,
+      boolean oneway,
+      Map<String, String> annotations
+    ) {
+      this.name = name;
+      this.returnType = returnType;
+      this.arguments = unmodifiableList(new ArrayList<>(arguments));
+      this.exceptions = unmodifiableList(new ArrayList<>(exceptions));
+      this.oneway = oneway;
+      this.annotations = unmodifiableMap(new LinkedHashMap<>(annotations));
+    }
+
+    String name() {
+      return name;
+    }
+
+    Type returnType() {
+      return returnType;
+    }
+
+    List<Field> arguments() {
+      return arguments;
+    }
+
+    List<Field> exceptions() {
+      return exceptions;
+    }
+
+    boolean isOneway() {
+      return oneway;
+    }
+
+    Map<String, String> annotations() {
+      return annotations;
+    }
+  }
+
+  static final class Service extends Definition {
+
+    private final Optional<String> parent;
+    private final List<Function> functions;
+
+    Service(String name, Optional<String> parent, List<Function> functions, Map<String, String> annotations) {
+      super(name, annotations);
+      this.parent = parent;
+      this.functions = unmodifiableList(new ArrayList<>(functions));
+    }
+
+    /**
+     * @return name of extended service, possibly qualified by include name
+     */
+    Optional<String> parent() {
+      return parent;
+    }
+
+    List<Function> functions() {
+      return functions;
+    }
+  }
+}
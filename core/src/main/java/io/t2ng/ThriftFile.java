@@ -0,0 +1,219 @@
+package io.t2ng;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.regex.Pattern.compile;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Thrift IDL file scanned once: content, JavaScript namespace, includes,
+ * declared symbols and symbols referenced from included files
+ */
+final class ThriftFile {
+
+  private static final Pattern THRIFT_ENUM_PATTERN = compile(
+    "enum\\s+(\\w+)"
+  );
+  private static final Pattern THRIFT_TYPE_PATTERN = compile(
+    "struct\\s+(\\w+)"
+  );
+  private static final Pattern THRIFT_EXCEPTION_PATTERN = compile(
+    "exception\\s+(\\w+)"
+  );
+  private static final Pattern THRIFT_SERVICE_PATTERN = compile(
+    "service\\s+(\\w+)"
+  );
+  private static final Pattern THRIFT_INCLUDE_PATTERN = compile(
+    "include\\s+\"(\\w+)\\.thrift\""
+  );
+  private static final Pattern THRIFT_JS_NAMESPACE_PATTERN = compile(
+    "namespace\\s+js\\s+([\\w\\._]+)"
+  );
+
+  private final File file;
+  private final String hash;
+  private final long size;
+  private final List<String> lines;
+  private final Set<String> jsNamespaces;
+  private final Set<String> includes;
+  private final Set<String> enums;
+  private final Set<String> types;
+  private final Set<String> exceptions;
+  private final Set<String> services;
+  private final Map<String, Set<String>> references;
+  private ThriftDocument document;
+
+  private ThriftFile(File file, String hash, long size, List<String> lines) {
+    this.file = file;
+    this.hash = hash;
+    this.size = size;
+    this.lines = unmodifiableList(lines);
+    this.jsNamespaces = capture(lines, THRIFT_JS_NAMESPACE_PATTERN);
+    this.includes = unmodifiableSet(capture(lines, THRIFT_INCLUDE_PATTERN));
+    this.enums = unmodifiableSet(capture(lines, THRIFT_ENUM_PATTERN));
+    this.types = unmodifiableSet(capture(lines, THRIFT_TYPE_PATTERN));
+    this.exceptions = unmodifiableSet(capture(lines, THRIFT_EXCEPTION_PATTERN));
+    Set<String> services = lines.stream()
+      .flatMap(s -> capture(s, THRIFT_SERVICE_PATTERN).stream())
+      .collect(toCollection(LinkedHashSet::new));
+    this.services = unmodifiableSet(services);
+    Map<String, Set<String>> references = new LinkedHashMap<>();
+    for (String include : includes) {
+      Set<String> symbols = new LinkedHashSet<>();
+      Pattern pattern = compile(format("[^\\.\"]%s\\.(\\w+)", include));
+      for (String line : lines) {
+        Matcher matcher = pattern.matcher(line);
+        while (matcher.find()) {
+          symbols.add(matcher.group(1));
+        }
+      }
+      references.put(include, unmodifiableSet(symbols));
+    }
+    this.references = unmodifiableMap(references);
+  }
+
+  static ThriftFile read(File file) {
+    byte[] content;
+    try {
+      content = Files.readAllBytes(file.toPath());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return of(file, content);
+  }
+
+  /**
+   * Scans content already read from the file
+   */
+  static ThriftFile of(File file, byte[] content) {
+    List<String> lines = new BufferedReader(
+      new StringReader(new String(content, StandardCharsets.UTF_8))
+    ).lines().collect(toList());
+    return new ThriftFile(file, sha256(content), content.length, lines);
+  }
+
+  File file() {
+    return file;
+  }
+
+  /**
+   * @return SHA-256 of file content
+   */
+  String hash() {
+    return hash;
+  }
+
+  /**
+   * @return size of file content in bytes
+   */
+  long size() {
+    return size;
+  }
+
+  List<String> lines() {
+    return lines;
+  }
+
+  String jsNamespace() {
+    if (jsNamespaces.size() != 1) {
+      throw new RuntimeException(
+        format(
+          "incorrect or missing JavaScript namespace in Thrift file %s",
+          file.getAbsolutePath()
+        )
+      );
+    }
+    return jsNamespaces.iterator().next();
+  }
+
+  /**
+   * @return names of included files without .thrift extension
+   */
+  Set<String> includes() {
+    return includes;
+  }
+
+  Set<String> enums() {
+    return enums;
+  }
+
+  Set<String> types() {
+    return types;
+  }
+
+  Set<String> exceptions() {
+    return exceptions;
+  }
+
+  /**
+   * @return services in order of declaration
+   */
+  Set<String> services() {
+    return services;
+  }
+
+  /**
+   * @return symbols referenced via included file name, e.g. {@code shared.User}, grouped by include
+   */
+  Map<String, Set<String>> references() {
+    return references;
+  }
+
+  /**
+   * @return definitions of the file, parsed on first access
+   */
+  synchronized ThriftDocument document() {
+    if (document == null) {
+      document = ThriftParser.parse(file.getAbsolutePath(), String.join("\n", lines));
+    }
+    return document;
+  }
+
+  private static String sha256(byte[] content) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    StringBuilder hash = new StringBuilder();
+    for (byte b : digest.digest(content)) {
+      hash.append(format("%02x", b));
+    }
+    return hash.toString();
+  }
+
+  private static Set<String> capture(Collection<String> input, Pattern pattern) {
+    return input.stream().flatMap(s -> capture(s, pattern).stream()).collect(toCollection(LinkedHashSet::new));
+  }
+
+  private static List<String> capture(String input, Pattern pattern) {
+    Matcher matcher = pattern.matcher(input);
+    List<String> result = new ArrayList<>();
+    while (matcher.find()) {
+      result.add(matcher.group(1));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,435 @@
+package io.t2ng;
+
+import io.t2ng.ThriftDocument.Const;
+import io.t2ng.ThriftDocument.Definition;
+import io.t2ng.ThriftDocument.Enum;
+import io.t2ng.ThriftDocument.Field;
+import io.t2ng.ThriftDocument.Function;
+import io.t2ng.ThriftDocument.Service;
+import io.t2ng.ThriftDocument.Struct;
+import io.t2ng.ThriftDocument.Type;
+import io.t2ng.ThriftDocument.Typedef;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+
+/**
+ * Recursive descent parser of Thrift IDL. Keeps what generators need:
+ * namespaces, includes, typedefs, constants (without values), enums,
+ * structs, unions, exceptions, services and annotations
+ */
+final class ThriftParser {
+
+  private static final String PUNCTUATION = "{}()[]<>,;:=*";
+
+  private final String fileName;
+  private final String source;
+  private int position;
+  private int line = 1;
+  private String token;
+  private boolean literal;
+
+  private ThriftParser(String fileName, String source) {
+    this.fileName = fileName;
+    this.source = source;
+  }
+
+  static ThriftDocument parse(String fileName, String source) {
+    return new ThriftParser(fileName, source).document();
+  }
+
+  private ThriftDocument document() {
+    Map<String, String> namespaces = new LinkedHashMap<>();
+    List<String> includes = new ArrayList<>();
+    List<Definition> definitions = new ArrayList<>();
+    next();
+    while (token != null) {
+      String keyword = identifier();
+      switch (keyword) {
+        case "include":
+          String include = string();
+          includes.add(include.substring(include.lastIndexOf('/') + 1).replaceFirst("\\.thrift$", ""));
+          break;
+        case "cpp_include":
+          string();
+          break;
+        case "namespace":
+          String scope = is("*") ? expect("*") : identifier();
+          namespaces.put(scope, literal ? string() : identifier());
+          annotations();
+          break;
+        case "typedef":
+          Type type = type();
+          definitions.add(new Typedef(identifier(), type, annotations()));
+          break;
+        case "const":
+          Type constType = type();
+          String constName = identifier();
+          expect("=");
+          constValue();
+          definitions.add(new Const(constName, constType));
+          break;
+        case "enum":
+          definitions.add(enumeration());
+          break;
+        case "senum":
+          identifier();
+          skipBlock();
+          annotations();
+          break;
+        case "struct":
+        case "union":
+        case "exception":
+          String name = identifier();
+          if (is("xsd_all")) {
+            next();
+          }
+          List<Field> fields = fields("{", "}");
+          definitions.add(new Struct(keyword, name, fields, annotations()));
+          break;
+        case "service":
+          definitions.add(service());
+          break;
+        default:
+          if (keyword.endsWith("_namespace")) {
+            consume();
+            break;
+          }
+          throw error(format("unexpected %s", keyword));
+      }
+      separator();
+    }
+    return new ThriftDocument(namespaces, includes, definitions);
+  }
+
+  private Enum enumeration() {
+    String name = identifier();
+    Map<String, Integer> values = new LinkedHashMap<>();
+    expect("{");
+    int value = 0;
+    while (!is("}")) {
+      String valueName = identifier();
+      if (is("=")) {
+        next();
+        value = integer();
+      }
+      values.put(valueName, value++);
+      annotations();
+      separator();
+    }
+    expect("}");
+    return new Enum(name, values, annotations());
+  }
+
+  private Service service() {
+    String name = identifier();
+    Optional<String> parent = Optional.empty();
+    if (is("extends")) {
+      next();
+      parent = Optional.of(identifier());
+    }
+    expect("{");
+    List<Function> functions = new ArrayList<>();
+    while (!is("}")) {
+      boolean oneway = false;
+      if (is("oneway") || is("async")) {
+        next();
+        oneway = true;
+      }
+      Type returnType = type();
+      String functionName = identifier();
+      List<Field> arguments = fields("(", ")");
+      List<Field> exceptions = emptyList();
+      if (is("throws")) {
+        next();
+        exceptions = fields("(", ")");
+      }
+      functions.add(new Function(functionName, returnType, arguments, exceptions, oneway, annotations()));
+      separator();
+    }
+    expect("}");
+    return new Service(name, parent, functions, annotations());
+  }
+
+  private List<Field> fields(String open, String close) {
+    expect(open);
+    List<Field> fields = new ArrayList<>();
+    int implicitId = 0;
+    while (!is(close)) {
+      int id = --implicitId;
+      if (!literal && isInteger(token)) {
+        id = integer();
+        expect(":");
+      }
+      boolean optional = false;
+      if (is("required")) {
+        next();
+      } else if (is("optional")) {
+        next();
+        optional = true;
+      }
+      Type type = type();
+      String name = identifier();
+      if (is("=")) {
+        next();
+        constValue();
+      }
+      annotations();
+      separator();
+      fields.add(new Field(id, name, type, optional));
+    }
+    expect(close);
+    return fields;
+  }
+
+  private Type type() {
+    String name = identifier();
+    List<Type> arguments = new ArrayList<>();
+    if (name.equals("map") || name.equals("set") || name.equals("list")) {
+      if (is("cpp_type")) {
+        next();
+        string();
+      }
+      expect("<");
+      arguments.add(type());
+      if (name.equals("map")) {
+        expect(",");
+        arguments.add(type());
+      }
+      expect(">");
+      if (is("cpp_type")) {
+        next();
+        string();
+      }
+    }
+    Type type = new Type(name, arguments);
+    annotations();
+    return type;
+  }
+
+  private Map<String, String> annotations() {
+    Map<String, String> annotations = new LinkedHashMap<>();
+    if (!is("(")) {
+      return annotations;
+    }
+    next();
+    while (!is(")")) {
+      String key = identifier();
+      String value = "1";
+      if (is("=")) {
+        next();
+        value = string();
+      }
+      annotations.put(key, value);
+      separator();
+    }
+    expect(")");
+    return annotations;
+  }
+
+  private void constValue() {
+    if (literal) {
+      next();
+    } else if (is("[")) {
+      next();
+      while (!is("]")) {
+        constValue();
+        separator();
+      }
+      expect("]");
+    } else if (is("{")) {
+      next();
+      while (!is("}")) {
+        constValue();
+        expect(":");
+        constValue();
+        separator();
+      }
+      expect("}");
+    } else if (token == null) {
+      throw error("unexpected end of file");
+    } else {
+      next();
+    }
+  }
+
+  private void skipBlock() {
+    expect("{");
+    int depth = 1;
+    while (depth > 0) {
+      if (token == null) {
+        throw error("unexpected end of file");
+      }
+      if (is("{")) {
+        depth++;
+      } else if (is("}")) {
+        depth--;
+      }
+      next();
+    }
+  }
+
+  private void separator() {
+    if (is(",") || is(";")) {
+      next();
+    }
+  }
+
+  private String identifier() {
+    if (token == null || literal || PUNCTUATION.contains(token)) {
+      throw error(format("identifier expected but %s found", describe()));
+    }
+    return consume();
+  }
+
+  private String string() {
+    if (token == null || !literal) {
+      throw error(format("literal expected but %s found", describe()));
+    }
+    return consume();
+  }
+
+  private int integer() {
+    if (token == null || literal || !isInteger(token)) {
+      throw error(format("integer expected but %s found", describe()));
+    }
+    String value = consume();
+    boolean negative = value.startsWith("-");
+    String digits = value.replaceFirst("^[+-]", "");
+    long result = digits.startsWith("0x") || digits.startsWith("0X")
+      ? Long.parseLong(digits.substring(2), 16)
+      : Long.parseLong(digits);
+    return (int) (negative ? -result : result);
+  }
+
+  private String expect(String expected) {
+    if (!is(expected)) {
+      throw error(format("%s expected but %s found", expected, describe()));
+    }
+    return consume();
+  }
+
+  private String consume() {
+    String value = token;
+    next();
+    return value;
+  }
+
+  private boolean is(String expected) {
+    return token != null && !literal && token.equals(expected);
+  }
+
+  private static boolean isInteger(String token) {
+    return token.matches("[+-]?(0[xX][0-9a-fA-F]+|[0-9]+)");
+  }
+
+  private String describe() {
+    return token == null ? "end of file" : format("'%s'", token);
+  }
+
+  private RuntimeException error(String message) {
+    return new RuntimeException(format("can't parse Thrift file %s at line %d: %s", fileName, line, message));
+  }
+
+  /**
+   * Moves to next token skipping whitespace and comments. Sets token to
+   * null at the end of source
+   */
+  private void next() {
+    literal = false;
+    while (position < source.length()) {
+      char c = source.charAt(position);
+      if (c == '\n') {
+        line++;
+        position++;
+      } else if (Character.isWhitespace(c)) {
+        position++;
+      } else if (c == '#' || source.startsWith("//", position)) {
+        while (position < source.length() && source.charAt(position) != '\n') {
+          position++;
+        }
+      } else if (source.startsWith("/*", position)) {
+        int end = source.indexOf("*/", position + 2);
+        if (end < 0) {
+          throw error("unterminated comment");
+        }
+        for (int i = position; i < end; i++) {
+          if (source.charAt(i) == '\n') {
+            line++;
+          }
+        }
+        position = end + 2;
+      } else {
+        break;
+      }
+    }
+    if (position >= source.length()) {
+      token = null;
+      return;
+    }
+    char c = source.charAt(position);
+    if (c == '"' || c == '\'') {
+      token = literal(c);
+      literal = true;
+      return;
+    }
+    if (PUNCTUATION.indexOf(c) >= 0) {
+      token = String.valueOf(c);
+      position++;
+      return;
+    }
+    int start = position;
+    while (position < source.length()) {
+      char ch = source.charAt(position);
+      if (Character.isWhitespace(ch) || PUNCTUATION.indexOf(ch) >= 0 || ch == '"' || ch == '\'') {
+        break;
+      }
+      position++;
+    }
+    token = source.substring(start, position);
+  }
+
+  /**
+   * Reads literal starting at current position, escape sequences are
+   * resolved the same as by Thrift compiler
+   *
+   * @param quote quote the literal starts and ends with
+   */
+  private String literal(char quote) {
+    StringBuilder value = new StringBuilder();
+    int i = position + 1;
+    while (i < source.length() && source.charAt(i) != quote) {
+      char c = source.charAt(i++);
+      if (c == '\n') {
+        line++;
+      } else if (c == '\\' && i < source.length()) {
+        c = source.charAt(i++);
+        switch (c) {
+          case 'n':
+            c = '\n';
+            break;
+          case 'r':
+            c = '\r';
+            break;
+          case 't':
+            c = '\t';
+            break;
+          default:
+            break;
+        }
+      }
+      value.append(c);
+    }
+    if (i >= source.length()) {
+      throw error("unterminated literal");
+    }
+    position = i + 1;
+    return value.toString();
+  }
+}
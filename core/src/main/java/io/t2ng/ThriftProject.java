@@ -0,0 +1,206 @@
+package io.t2ng;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-memory model of all Thrift files of the project. Every file is read
+ * and scanned once, every include is resolved once per directory of
+ * including files
+ */
+final class ThriftProject {
+
+  private final List<String> includeDirs;
+  private final List<ThriftFile> files;
+  private final Map<Path, Map<String, ThriftFile>> resolvedIncludes;
+  private final Map<String, List<File>> ambiguousIncludes;
+  private final Map<File, Exception> failures;
+  private final long readNanos;
+  private final long resolveNanos;
+
+  private ThriftProject(
+    List<String> includeDirs,
+    List<ThriftFile> files,
+    Map<Path, Map<String, ThriftFile>> resolvedIncludes,
+    Map<String, List<File>> ambiguousIncludes,
+    Map<File, Exception> failures,
+    long readNanos,
+    long resolveNanos
+  ) {
+    this.includeDirs = unmodifiableList(includeDirs);
+    this.files = unmodifiableList(files);
+    this.resolvedIncludes = unmodifiableMap(resolvedIncludes);
+    this.ambiguousIncludes = unmodifiableMap(ambiguousIncludes);
+    this.failures = unmodifiableMap(failures);
+    this.readNanos = readNanos;
+    this.resolveNanos = resolveNanos;
+  }
+
+  /**
+   * @param thriftFiles files to generate, files they include are read as well
+   */
+  static ThriftProject scan(Collection<File> thriftFiles, Workspace workspace) {
+    long started = System.nanoTime();
+    Map<Path, ThriftFile> files = new LinkedHashMap<>();
+    Map<File, Exception> failures = new LinkedHashMap<>();
+    Map<Path, Exception> unreadable = new HashMap<>();
+    for (File thriftFile : thriftFiles) {
+      try {
+        files.put(normalize(thriftFile), ThriftFile.read(thriftFile));
+      } catch (RuntimeException e) {
+        failures.put(thriftFile, e);
+        unreadable.put(normalize(thriftFile), e);
+      }
+    }
+    long read = System.nanoTime();
+    Map<Path, Map<String, ThriftFile>> resolvedIncludes = new HashMap<>();
+    Map<String, List<File>> ambiguousIncludes = new TreeMap<>();
+    Deque<ThriftFile> queue = new ArrayDeque<>(files.values());
+    while (!queue.isEmpty()) {
+      ThriftFile thriftFile = queue.poll();
+      Path dir = directory(thriftFile.file());
+      Map<String, ThriftFile> resolved = resolvedIncludes.computeIfAbsent(dir, k -> new HashMap<>());
+      for (String include : thriftFile.includes()) {
+        if (resolved.containsKey(include)) {
+          continue;
+        }
+        List<File> candidates = workspace.resolve(include);
+        if (candidates.isEmpty()) {
+          continue;
+        }
+        if (candidates.size() > 1) {
+          ambiguousIncludes.put(include, candidates);
+        }
+        File file = candidates.stream()
+          .filter(candidate -> directory(candidate).equals(dir))
+          .findFirst()
+          .orElse(candidates.get(0));
+        ThriftFile included = files.get(normalize(file));
+        if (included == null && !unreadable.containsKey(normalize(file))) {
+          try {
+            included = ThriftFile.read(file);
+            files.put(normalize(file), included);
+            queue.add(included);
+          } catch (RuntimeException e) {
+            unreadable.put(normalize(file), e);
+          }
+        }
+        if (included == null) {
+          Exception cause = unreadable.get(normalize(file));
+          failures.put(thriftFile.file(), new RuntimeException(
+            format("can't read included file %s: %s", file, cause.getMessage()),
+            cause
+          ));
+          continue;
+        }
+        resolved.put(include, included);
+      }
+    }
+    return new ThriftProject(
+      workspace.includeDirs(),
+      thriftFiles.stream()
+        .filter(f -> !failures.containsKey(f))
+        .map(f -> files.get(normalize(f)))
+        .collect(toList()),
+      resolvedIncludes,
+      ambiguousIncludes,
+      failures,
+      read - started,
+      System.nanoTime() - read
+    );
+  }
+
+  List<String> includeDirs() {
+    return includeDirs;
+  }
+
+  /**
+   * @return successfully read files in order of discovery
+   */
+  List<ThriftFile> files() {
+    return files;
+  }
+
+  /**
+   * @return includes found in several include directories, with all the
+   * files found in order of include directories. The same as Thrift
+   * compiler, the file next to including one is used, otherwise the first one
+   */
+  Map<String, List<File>> ambiguousIncludes() {
+    return ambiguousIncludes;
+  }
+
+  /**
+   * @return files which could not be read, or include files which could not be read
+   */
+  Map<File, Exception> failures() {
+    return failures;
+  }
+
+  /**
+   * @return time taken to read and scan input files
+   */
+  long readNanos() {
+    return readNanos;
+  }
+
+  /**
+   * @return time taken to resolve includes, including reading of included
+   * files which are not among input files
+   */
+  long resolveNanos() {
+    return resolveNanos;
+  }
+
+  /**
+   * @return total size of read files
+   */
+  long size() {
+    Set<ThriftFile> read = new HashSet<>(files);
+    resolvedIncludes.values().forEach(resolved -> read.addAll(resolved.values()));
+    return read.stream().mapToLong(ThriftFile::size).sum();
+  }
+
+  /**
+   * @param thriftFile file including the other one
+   * @param include    name of included file without .thrift extension
+   */
+  ThriftFile include(ThriftFile thriftFile, String include) {
+    ThriftFile file = resolvedIncludes.getOrDefault(directory(thriftFile.file()), emptyMap()).get(include);
+    if (file == null) {
+      throw new RuntimeException(format("unable to resolve include file %s", include));
+    }
+    return file;
+  }
+
+  /**
+   * @return files included by given one, in order of {@link ThriftFile#includes()}
+   */
+  List<ThriftFile> includes(ThriftFile thriftFile) {
+    return thriftFile.includes().stream().map(include -> include(thriftFile, include)).collect(toList());
+  }
+
+  private static Path normalize(File file) {
+    return file.toPath().toAbsolutePath().normalize();
+  }
+
+  private static Path directory(File file) {
+    return normalize(file).getParent();
+  }
+}
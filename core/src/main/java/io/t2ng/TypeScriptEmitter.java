@@ -0,0 +1,328 @@
+package io.t2ng;
+
+import io.t2ng.ThriftDocument.Const;
+import io.t2ng.ThriftDocument.Definition;
+import io.t2ng.ThriftDocument.Enum;
+import io.t2ng.ThriftDocument.Field;
+import io.t2ng.ThriftDocument.Function;
+import io.t2ng.ThriftDocument.Service;
+import io.t2ng.ThriftDocument.Struct;
+import io.t2ng.ThriftDocument.Type;
+import io.t2ng.ThriftDocument.Typedef;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+import static java.lang.String.join;
+
+/**
+ * Emits TypeScript module declarations straight from parsed Thrift
+ * definitions, in the same shape as declarations adapted from
+ * {@code thrift --gen js:ts} output, so no compiler run is needed.
+ * Angular services wrapping clients are emitted the same way
+ */
+final class TypeScriptEmitter {
+
+  private final ThriftProject project;
+  private final String projectName;
+
+  TypeScriptEmitter(ThriftProject project, String projectName) {
+    this.project = project;
+    this.projectName = projectName;
+  }
+
+  /**
+   * @return lines of {@code declare module '<project>/<namespace>'} declaration
+   */
+  List<String> emit(ThriftFile thriftFile) {
+    Resolver module = new Resolver(thriftFile, false);
+    List<String> body = new ArrayList<>();
+    ThriftDocument document = thriftFile.document();
+    for (Enum e : document.definitions(Enum.class)) {
+      body.add(format("export enum %s {", e.name()));
+      for (Map.Entry<String, Integer> value : e.values().entrySet()) {
+        body.add(format("%s = %d,", value.getKey(), value.getValue()));
+      }
+      body.add("}");
+    }
+    for (Const c : document.definitions(Const.class)) {
+      body.add(format("export const %s: %s;", c.name(), module.type(thriftFile, c.type())));
+    }
+    for (Struct struct : document.definitions(Struct.class)) {
+      body.add(struct.isException()
+        ? format("export class %s extends Thrift.TException {", struct.name())
+        : format("export class %s {", struct.name()));
+      List<String> args = new ArrayList<>();
+      for (Field field : struct.fields()) {
+        String declaration = module.field(thriftFile, field);
+        body.add(format("%s;", declaration));
+        args.add(format("%s;", declaration));
+      }
+      body.add(args.isEmpty()
+        ? "constructor(args?: {});"
+        : format("constructor(args?: { %s });", join(" ", args)));
+      body.add("}");
+    }
+    for (Service service : document.definitions(Service.class)) {
+      body.add(service.parent()
+        .map(parent -> format("export class %sClient extends %sClient {", service.name(), module.parent(service)))
+        .orElse(format("export class %sClient {", service.name())));
+      body.add("input: Thrift.TJSONProtocol;");
+      body.add("output: Thrift.TJSONProtocol;");
+      body.add("seqid: number;");
+      body.add("constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);");
+      for (Function function : service.functions()) {
+        List<String> args = new ArrayList<>();
+        for (Field argument : function.arguments()) {
+          args.add(module.field(thriftFile, argument));
+        }
+        String returnType = module.type(thriftFile, function.returnType());
+        body.add(format("%s(%s): %s;", function.name(), join(", ", args), returnType));
+        args.add(format("callback?: (data: %s)=>void", returnType));
+        body.add(format("%s(%s): JQueryXHR;", function.name(), join(", ", args)));
+        // thrown exceptions are imported as well, the same as by adapted declarations
+        for (Field exception : function.exceptions()) {
+          module.type(thriftFile, exception.type());
+        }
+      }
+      body.add("}");
+    }
+    List<String> lines = new ArrayList<>();
+    lines.add(format("declare module '%s/%s' {", projectName, thriftFile.jsNamespace()));
+    lines.add("import Thrift from 'thrift/Thrift';");
+    lines.addAll(module.imports);
+    lines.addAll(body);
+    lines.add("}");
+    return lines;
+  }
+
+  /**
+   * Emits {@code @Injectable} service for every service of the file, with
+   * methods of extended services included. Methods return promises and
+   * results of methods annotated as idempotent may be cached
+   *
+   * @return lines of TypeScript source, empty when the file has no services
+   */
+  List<String> emitAngularServices(ThriftFile thriftFile) {
+    List<Service> services = thriftFile.document().definitions(Service.class);
+    if (services.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Resolver module = new Resolver(thriftFile, true);
+    List<String> body = new ArrayList<>();
+    for (Service service : services) {
+      String client = module.reference(thriftFile, format("%sClient", service.name()));
+      body.add("");
+      body.add("@Injectable()");
+      body.add(format("export class %s {", service.name()));
+      body.add("");
+      body.add(format("  private readonly client: %s;", client));
+      body.add("  private readonly calls: ThriftCalls;");
+      body.add("");
+      body.add("  constructor(factory: ThriftClientFactory, @Optional() config: ThriftCacheConfig) {");
+      body.add(format("    this.client = factory.create('%s', %s);", service.name(), client));
+      body.add("    this.calls = new ThriftCalls(config || new ThriftCacheConfig());");
+      body.add("  }");
+      body.add("");
+      body.add("  get stats(): ThriftCallStats {");
+      body.add("    return this.calls.stats;");
+      body.add("  }");
+      body.add("");
+      body.add("  clearCache(): void {");
+      body.add("    this.calls.clear();");
+      body.add("  }");
+      for (Map.Entry<Function, ThriftFile> entry : module.functions(service).entrySet()) {
+        Function function = entry.getKey();
+        ThriftFile scope = entry.getValue();
+        List<String> args = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (Field argument : function.arguments()) {
+          args.add(module.field(scope, argument));
+          names.add(argument.name());
+        }
+        String returnType = module.type(scope, function.returnType());
+        List<String> sendArgs = new ArrayList<>(names);
+        sendArgs.add("callback");
+        String send = format("callback => this.client.%s(%s)", function.name(), join(", ", sendArgs));
+        body.add("");
+        body.add(format("  %s(%s): Promise<%s> {", function.name(), join(", ", args), returnType));
+        body.add(function.isOneway()
+          ? format("    return this.calls.send<%s>(%s);", returnType, send)
+          : format(
+            "    return this.calls.call<%s>('%s', [%s], %s, %s);",
+            returnType,
+            function.name(),
+            join(", ", names),
+            isIdempotent(function),
+            send
+          ));
+        body.add("  }");
+      }
+      body.add("}");
+    }
+    List<String> lines = new ArrayList<>();
+    lines.add("import { Injectable, Optional } from '@angular/core';");
+    lines.add(format(
+      "import { ThriftCacheConfig, ThriftCallStats, ThriftCalls, ThriftClientFactory } from './%s';",
+      AngularSupport.MODULE
+    ));
+    for (Map.Entry<String, Set<String>> imported : module.symbols.entrySet()) {
+      lines.add(format("import { %s } from '%s/%s';", join(", ", imported.getValue()), projectName, imported.getKey()));
+    }
+    lines.addAll(body);
+    return lines;
+  }
+
+  private static boolean isIdempotent(Function function) {
+    String value = function.annotations().get(AngularSupport.IDEMPOTENT);
+    return value != null && !value.equals("false") && !value.equals("0");
+  }
+
+  /**
+   * Resolves types referenced from the module and collects imports
+   * of types declared in other modules
+   */
+  private final class Resolver {
+
+    private final ThriftFile thriftFile;
+    private final boolean importOwn;
+    /**
+     * Import per symbol, as in declarations adapted from Thrift compiler output
+     */
+    private final Set<String> imports = new TreeSet<>();
+    /**
+     * Imported symbols by namespace
+     */
+    private final Map<String, Set<String>> symbols = new TreeMap<>();
+
+    /**
+     * @param importOwn whether definitions of the file are imported as
+     *                  well, when the module isn't the file's own one
+     */
+    private Resolver(ThriftFile thriftFile, boolean importOwn) {
+      this.thriftFile = thriftFile;
+      this.importOwn = importOwn;
+    }
+
+    private String field(ThriftFile scope, Field field) {
+      return format("%s%s: %s", field.name(), field.isOptional() ? "?" : "", type(scope, field.type()));
+    }
+
+    private String type(ThriftFile scope, Type type) {
+      switch (type.name()) {
+        case "void":
+          return "void";
+        case "bool":
+          return "boolean";
+        case "byte":
+        case "i8":
+        case "i16":
+        case "i32":
+        case "i64":
+        case "double":
+          return "number";
+        case "string":
+        case "binary":
+        case "slist":
+          return "string";
+        case "list":
+        case "set":
+          return format("%s[]", type(scope, type.arguments().get(0)));
+        case "map":
+          return format(
+            "{ [k: %s]: %s; }",
+            type(scope, type.arguments().get(0)),
+            type(scope, type.arguments().get(1))
+          );
+        default:
+          ThriftFile owner = owner(scope, type.name());
+          Definition definition = definition(owner, type.name());
+          if (definition instanceof Typedef) {
+            return type(owner, ((Typedef) definition).type());
+          }
+          return reference(owner, definition.name());
+      }
+    }
+
+    private String parent(Service service) {
+      Map.Entry<Service, ThriftFile> parent = new ArrayList<>(hierarchy(service).entrySet()).get(1);
+      return reference(parent.getValue(), parent.getKey().name());
+    }
+
+    /**
+     * @return functions of the service and services it extends along with
+     * files they are declared in
+     */
+    private Map<Function, ThriftFile> functions(Service service) {
+      Map<Function, ThriftFile> functions = new LinkedHashMap<>();
+      hierarchy(service).forEach((current, scope) -> current.functions().forEach(f -> functions.put(f, scope)));
+      return functions;
+    }
+
+    /**
+     * @return the service and services it extends, nearest first, along
+     * with files they are declared in
+     */
+    private Map<Service, ThriftFile> hierarchy(Service service) {
+      Map<Service, ThriftFile> hierarchy = new LinkedHashMap<>();
+      List<String> chain = new ArrayList<>();
+      chain.add(service.name());
+      ThriftFile scope = thriftFile;
+      Service current = service;
+      while (true) {
+        hierarchy.put(current, scope);
+        if (!current.parent().isPresent()) {
+          return hierarchy;
+        }
+        String parent = current.parent().get();
+        chain.add(parent);
+        ThriftFile owner = owner(scope, parent);
+        Definition definition = definition(owner, parent);
+        if (!(definition instanceof Service)) {
+          throw new RuntimeException(format(
+            "%s extended by service %s isn't a service",
+            parent,
+            current.name()
+          ));
+        }
+        if (hierarchy.containsKey(definition)) {
+          throw new RuntimeException(format(
+            "service %s extends itself through %s",
+            service.name(),
+            join(" -> ", chain)
+          ));
+        }
+        current = (Service) definition;
+        scope = owner;
+      }
+    }
+
+    private String reference(ThriftFile owner, String symbol) {
+      if (owner != thriftFile || importOwn) {
+        imports.add(format("import { %s } from '%s/%s';", symbol, projectName, owner.jsNamespace()));
+        symbols.computeIfAbsent(owner.jsNamespace(), k -> new TreeSet<>()).add(symbol);
+      }
+      return symbol;
+    }
+
+    private ThriftFile owner(ThriftFile scope, String name) {
+      int dot = name.indexOf('.');
+      return dot < 0 ? scope : project.include(scope, name.substring(0, dot));
+    }
+
+    private Definition definition(ThriftFile owner, String name) {
+      String localName = name.substring(name.indexOf('.') + 1);
+      return owner.document().definition(localName).orElseThrow(() -> new RuntimeException(format(
+        "unknown type %s referenced from Thrift file %s",
+        name,
+        thriftFile.file().getAbsolutePath()
+      )));
+    }
+  }
+}
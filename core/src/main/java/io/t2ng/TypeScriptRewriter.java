@@ -0,0 +1,163 @@
+package io.t2ng;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.regex.Pattern.compile;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Rewrites declarations generated by {@code thrift --gen js:ts} into members
+ * of TypeScript module: skips module declaration and comments, exports
+ * enums and classes declared in Thrift file and strips namespace prefixes.
+ * All the patterns are compiled once per module, declared symbols are
+ * looked up in sets, every line is passed once
+ */
+final class TypeScriptRewriter {
+
+  private static final Pattern DECLARATION_PATTERN = compile(
+    "^\\s+(enum|class)\\s+(\\w+)\\s+\\{"
+  );
+  private static final Pattern COMMENT_PATTERN = compile(
+    "/\\*.+?\\*/"
+  );
+
+  private final Set<String> enums;
+  private final Set<String> classes;
+  private final NamespaceReference ownNamespace;
+  private final List<NamespaceReference> includedNamespaces;
+
+  /**
+   * @param includedNamespaces namespaces of included files, order matters
+   *                           as references are stripped one after another
+   */
+  TypeScriptRewriter(
+    Set<String> enums,
+    Set<String> classes,
+    String jsNs,
+    Collection<String> includedNamespaces
+  ) {
+    this.enums = enums;
+    this.classes = classes;
+    this.ownNamespace = new NamespaceReference(jsNs, format("%s\\.", jsNs));
+    this.includedNamespaces = includedNamespaces.stream()
+      .map(ns -> new NamespaceReference(ns, format("[^\"]%s\\.", ns)))
+      .collect(toList());
+  }
+
+  /**
+   * @param lines declarations of single file generated by Thrift compiler
+   * @return module members, without closing bracket of module declaration
+   */
+  List<String> rewrite(List<String> lines) {
+    List<String> adapted = new ArrayList<>();
+    for (String s : lines) {
+      if (isMember(s)) {
+        adapted.add(rewriteLine(s));
+      }
+    }
+    if (!adapted.isEmpty()) {
+      adapted.remove(adapted.size() - 1);
+    }
+    return adapted;
+  }
+
+  /**
+   * Same as {@link #rewrite(List)}, but line by line, so memory doesn't
+   * depend on size of the file. Every member is held back until the next
+   * one is read, as the last one is closing bracket of module declaration
+   *
+   * @param reader declarations of single file generated by Thrift compiler
+   * @param writer module members, every one followed by line separator
+   */
+  void rewrite(BufferedReader reader, BufferedWriter writer) throws IOException {
+    String pending = null;
+    String s;
+    while ((s = reader.readLine()) != null) {
+      if (!isMember(s)) {
+        continue;
+      }
+      if (pending != null) {
+        writer.write(pending);
+        writer.newLine();
+      }
+      pending = rewriteLine(s);
+    }
+  }
+
+  private static boolean isMember(String s) {
+    return !s.isEmpty() && !s.contains("declare module") && !s.startsWith("//");
+  }
+
+  private String rewriteLine(String s) {
+    Matcher declaration = DECLARATION_PATTERN.matcher(s);
+    if (declaration.lookingAt()) {
+      String kind = declaration.group(1);
+      String name = declaration.group(2);
+      if ((kind.equals("enum") ? enums : classes).contains(name)) {
+        s = format("export %s %s {%s", kind, name, s.substring(declaration.end()));
+      }
+    }
+    s = ownNamespace.strip(s);
+    s = stripLeadingWhitespace(s);
+    if (s.contains("/*")) {
+      s = COMMENT_PATTERN.matcher(s).replaceAll("");/*comments when export from other Thrift file*/
+    }
+    for (NamespaceReference include : includedNamespaces) {
+      s = include.strip(s);
+    }
+    return s;
+  }
+
+  /**
+   * Same as removing {@code ^\s+}
+   */
+  private static String stripLeadingWhitespace(String s) {
+    int i = 0;
+    while (i < s.length() && isRegexWhitespace(s.charAt(i))) {
+      i++;
+    }
+    return s.substring(i);
+  }
+
+  private static boolean isRegexWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * Reference to namespace, e.g. {@code app.shared.}. Dots of namespace
+   * match any character as they always did, the longest dot-free part of
+   * namespace is used to skip lines which can't contain the reference
+   */
+  private static final class NamespaceReference {
+
+    private final Pattern pattern;
+    private final String literal;
+
+    private NamespaceReference(String ns, String regex) {
+      this.pattern = compile(regex);
+      String literal = "";
+      for (String part : ns.split("\\.")) {
+        if (part.length() > literal.length()) {
+          literal = part;
+        }
+      }
+      this.literal = literal;
+    }
+
+    private String strip(String s) {
+      if (!s.contains(literal)) {
+        return s;
+      }
+      return pattern.matcher(s).replaceAll("");
+    }
+  }
+}
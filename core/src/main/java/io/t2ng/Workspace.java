@@ -0,0 +1,148 @@
+package io.t2ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Thrift files and include directories of input directory, found by
+ * single walk of the directory tree. Include directories are the input
+ * directory and all its subdirectories. Thrift compiler looks included
+ * file up in directory of including file first, then in include
+ * directories in the given order, so includes are resolved by index built
+ * during the walk instead of probing every include directory. Files and
+ * directories are ordered by path, so that every run on every file system
+ * sees them in the same order
+ */
+final class Workspace {
+
+  private static final String THRIFT_EXTENSION = ".thrift";
+
+  /**
+   * Orders paths name by name, so every directory goes right before its
+   * subdirectories
+   */
+  private static final Comparator<Path> BY_NAMES = (a, b) -> {
+    int names = Math.min(a.getNameCount(), b.getNameCount());
+    for (int i = 0; i < names; i++) {
+      int result = a.getName(i).toString().compareTo(b.getName(i).toString());
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(a.getNameCount(), b.getNameCount());
+  };
+
+  private final List<File> thriftFiles;
+  private final List<String> includeDirs;
+  private final Map<String, List<File>> index;
+  private final long scanNanos;
+
+  private Workspace(List<File> thriftFiles, List<String> includeDirs, Map<String, List<File>> index, long scanNanos) {
+    this.thriftFiles = unmodifiableList(thriftFiles);
+    this.includeDirs = unmodifiableList(includeDirs);
+    this.index = index;
+    this.scanNanos = scanNanos;
+  }
+
+  static Workspace scan(String inputDir) throws IOException {
+    long started = System.nanoTime();
+    List<Path> dirs = new ArrayList<>();
+    Map<Path, List<Path>> files = new HashMap<>();
+    Files.walkFileTree(
+      Paths.get(inputDir),
+      EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+      Integer.MAX_VALUE,
+      new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+          dirs.add(dir);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+          if (attrs.isRegularFile() && file.getFileName().toString().endsWith(THRIFT_EXTENSION)) {
+            files.computeIfAbsent(file.getParent(), k -> new ArrayList<>()).add(file);
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+          if (e instanceof FileSystemLoopException) {
+            return FileVisitResult.CONTINUE;
+          }
+          throw e;
+        }
+      }
+    );
+    dirs.sort(BY_NAMES);
+    Map<String, List<File>> index = new HashMap<>();
+    List<Path> thriftFiles = new ArrayList<>();
+    for (Path dir : dirs) {
+      for (Path file : files.getOrDefault(dir, emptyList())) {
+        String fileName = file.getFileName().toString();
+        String include = fileName.substring(0, fileName.length() - THRIFT_EXTENSION.length());
+        index.computeIfAbsent(include, k -> new ArrayList<>()).add(file.toFile());
+        thriftFiles.add(file);
+      }
+    }
+    thriftFiles.sort(BY_NAMES);
+    return new Workspace(
+      thriftFiles.stream().map(Path::toFile).collect(toList()),
+      dirs.stream().map(Path::toString).collect(toList()),
+      index,
+      System.nanoTime() - started
+    );
+  }
+
+  /**
+   * @return all Thrift files of the input directory
+   */
+  List<File> thriftFiles() {
+    return thriftFiles;
+  }
+
+  /**
+   * @return include directories in order Thrift compiler looks included
+   * files up after directory of including file
+   */
+  List<String> includeDirs() {
+    return includeDirs;
+  }
+
+  /**
+   * @param include name of included file without .thrift extension
+   * @return files the include may refer to, in order of include
+   * directories, Thrift compiler takes the one next to including file,
+   * otherwise the first one
+   */
+  List<File> resolve(String include) {
+    return unmodifiableList(index.getOrDefault(include, emptyList()));
+  }
+
+  /**
+   * @return time taken to walk the input directory
+   */
+  long scanNanos() {
+    return scanNanos;
+  }
+}
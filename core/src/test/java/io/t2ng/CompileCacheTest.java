@@ -0,0 +1,95 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompileCacheTest {
+
+  private static final String KEY = "ab0123456789";
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void restoresPublishedEntry() throws IOException {
+    CompileCache cache = new CompileCache(temp.newFolder("cache").toPath(), Long.MAX_VALUE, "salt", Log.STANDARD);
+    Map<String, Path> outputs = new LinkedHashMap<>();
+    outputs.put("js/a.js", file("a.js", "var a;"));
+    outputs.put("ts/a.d.ts", file("a.d.ts", "declare module 'a' {}"));
+    cache.put(KEY, outputs);
+    Map<String, String> restored = new TreeMap<>();
+    assertTrue(cache.restore(KEY, (output, file) -> restored.put(output, TypeScriptCorpusTest.read(file))));
+    assertEquals("var a;", restored.get("js/a.js"));
+    assertEquals("declare module 'a' {}", restored.get("ts/a.d.ts"));
+    assertEquals(1, cache.hits());
+    assertEquals(0, cache.misses());
+  }
+
+  @Test
+  public void entryEvictedWhileRestoredIsMiss() throws IOException {
+    Path dir = temp.newFolder("cache").toPath();
+    CompileCache cache = new CompileCache(dir, Long.MAX_VALUE, "salt", Log.STANDARD);
+    Map<String, Path> outputs = new LinkedHashMap<>();
+    outputs.put("js/a.js", file("a.js", "var a;"));
+    outputs.put("js/b.js", file("b.js", "var b;"));
+    cache.put(KEY, outputs);
+    CompileCache evicting = new CompileCache(dir, 1, "salt", Log.STANDARD);
+    assertFalse(cache.restore(KEY, (output, file) -> {
+      evicting.evict();
+      Files.readAllBytes(file);
+    }));
+    assertEquals(0, cache.hits());
+    assertEquals(1, cache.misses());
+    assertFalse(cache.restore(KEY, (output, file) -> {
+    }));
+    assertEquals(2, cache.misses());
+  }
+
+  @Test(expected = NoSuchFileException.class)
+  public void listingOfEvictedEntryFails() throws IOException {
+    CompileCache.list(temp.getRoot().toPath().resolve("evicted"));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedEntries() throws IOException {
+    Path dir = temp.newFolder("cache").toPath();
+    CompileCache cache = new CompileCache(dir, 10, "salt", Log.STANDARD);
+    for (String key : Arrays.asList("aa01", "aa02", "aa03")) {
+      cache.put(key, singleOutput(key, "123456"));
+      Files.setLastModifiedTime(dir.resolve("aa").resolve(key), FileTime.fromMillis(
+        System.currentTimeMillis() - 60_000 + Integer.parseInt(key.substring(2)) * 1000
+      ));
+    }
+    assertEquals(2, cache.evict());
+    assertEquals(Collections.singletonList("aa03"), TypeScriptCorpusTest.listFileNames(dir.resolve("aa")));
+  }
+
+  private Map<String, Path> singleOutput(String name, String content) throws IOException {
+    Map<String, Path> outputs = new LinkedHashMap<>();
+    outputs.put("js/" + name + ".js", file(name + ".js", content));
+    return outputs;
+  }
+
+  private Path file(String name, String content) throws IOException {
+    Path file = temp.getRoot().toPath().resolve(name);
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
@@ -0,0 +1,131 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.t2ng.JavaScriptModuleTransformerTest.FIXTURE;
+import static io.t2ng.JavaScriptModuleTransformerTest.STUB_COMPILER;
+import static io.t2ng.JavaScriptModuleTransformerTest.runs;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks ES modules generated from {@code src/test/resources/io/t2ng/javascript/idl},
+ * where {@code syn.m0.ext} is nested into namespace of included file
+ */
+public class EsModuleWrapperTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void headerDeclaresNamespacesOfIncludedFiles() throws IOException {
+    Workspace workspace = Workspace.scan(FIXTURE.resolve("idl").toString());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    EsModuleWrapper wrapper = new EsModuleWrapper(project, "t2ng");
+    assertEquals(
+      Arrays.asList("import Thrift from 'thrift/Thrift';", "var syn = { m0: {} };"),
+      wrapper.header(ThriftProjectTest.file(project, "m0.thrift"))
+    );
+    assertEquals(
+      Arrays.asList(
+        "import Thrift from 'thrift/Thrift';",
+        "import * as syn$m0 from 't2ng/syn.m0';",
+        "var syn = { m0: syn$m0, m1: {} };"
+      ),
+      wrapper.header(ThriftProjectTest.file(project, "m1.thrift"))
+    );
+    assertEquals(
+      Arrays.asList(
+        "import Thrift from 'thrift/Thrift';",
+        "import * as syn$m0 from 't2ng/syn.m0';",
+        "var syn = { m0: Object.assign({}, syn$m0, { ext: {} }) };"
+      ),
+      wrapper.header(ThriftProjectTest.file(project, "m2.thrift"))
+    );
+  }
+
+  @Test
+  public void footerExportsEveryDefinition() throws IOException {
+    Workspace workspace = Workspace.scan(FIXTURE.resolve("idl").toString());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    EsModuleWrapper wrapper = new EsModuleWrapper(project, "t2ng");
+    assertEquals(
+      Arrays.asList(
+        "export var E0 = syn.m0.E0;",
+        "export var S0_0 = syn.m0.S0_0;",
+        "export var X0 = syn.m0.X0;",
+        "export var Svc0Client = syn.m0.Svc0Client;"
+      ),
+      wrapper.footer(ThriftProjectTest.file(project, "m0.thrift"))
+    );
+    assertEquals(
+      Arrays.asList("export var E2 = syn.m0.ext.E2;", "export var S2_0 = syn.m0.ext.S2_0;"),
+      wrapper.footer(ThriftProjectTest.file(project, "m2.thrift"))
+    );
+  }
+
+  @Test
+  public void generatedModulesLoadInNode() throws Exception {
+    assumeTrue("node is not installed", runs("node", "--version"));
+    File generated = temp.newFolder("generated");
+    new Generator(GeneratorConfig.builder()
+      .projectName("t2ng")
+      .inputDir(FIXTURE.resolve("idl").toString())
+      .generatedSourceDir(generated.getPath())
+      .thriftExecutable(STUB_COMPILER)
+      .esModules(true)
+      .log(info -> {}, warn -> {})
+      .build()
+    ).generate();
+    // node resolves ES modules by exports of packages, NODE_PATH is ignored
+    Path t2ng = temp.newFolder("node_modules", "t2ng").toPath();
+    try (Stream<Path> modules = Files.list(generated.toPath().resolve("js"))) {
+      for (Path module : (Iterable<Path>) modules::iterator) {
+        Files.copy(module, t2ng.resolve(module.getFileName()));
+      }
+    }
+    write(t2ng.resolve("package.json"), "{\"type\": \"module\", \"exports\": {\"./*\": \"./*.js\"}}");
+    Path thrift = temp.newFolder("node_modules", "thrift").toPath();
+    Files.copy(FIXTURE.resolve("thrift/Thrift.js"), thrift.resolve("Thrift.js"));
+    write(thrift.resolve("package.json"), "{\"exports\": {\"./Thrift\": \"./Thrift.js\"}}");
+    Path script = temp.getRoot().toPath().resolve("load.mjs");
+    Files.copy(FIXTURE.resolve("load.mjs"), script);
+    Process process = new ProcessBuilder("node", script.toString())
+      .redirectErrorStream(true)
+      .redirectOutput(temp.newFile("node.log"))
+      .start();
+    assertTrue("node timed out", process.waitFor(1, TimeUnit.MINUTES));
+    assertEquals(
+      TypeScriptCorpusTest.read(temp.getRoot().toPath().resolve("node.log")),
+      0,
+      process.exitValue()
+    );
+  }
+
+  @Test
+  public void esModulesCantBeMerged() {
+    try {
+      GeneratorConfig.fromArguments(new String[]{"-p", "t2ng", "-i", "idl", "-s", "generated", "--esm", "-m"});
+      fail("-m expected to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("ES modules can't be merged into single file", e.getMessage());
+    }
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+}
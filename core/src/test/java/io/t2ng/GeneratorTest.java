@@ -0,0 +1,254 @@
+package io.t2ng;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratorTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void watchedGenerationSurvivesFailures() throws Exception {
+    Path caseDir = temp.getRoot().toPath().resolve("basic");
+    Path inputDir = caseDir.resolve("idl");
+    List<String> warn = new ArrayList<>();
+    GeneratorConfig config = GeneratorConfig.builder()
+      .projectName(TypeScriptCorpusTest.PROJECT_NAME)
+      .inputDir(inputDir.toString())
+      .generatedSourceDir(temp.newFolder("generated").getPath())
+      .thriftExecutable(TypeScriptCorpusTest.STUB_COMPILER)
+      .watch(true)
+      .log(info -> {}, warn::add)
+      .build();
+    String tempDir = temp.newFolder("scratch").getPath();
+    assertFalse(Generator.generateWatched(config, tempDir));
+    assertEquals(1, warn.size());
+    assertTrue(warn.get(0), warn.get(0).startsWith("generation failed: java.nio.file.NoSuchFileException: "));
+    FileUtils.copyDirectory(TypeScriptCorpusTest.CORPUS.resolve("basic").toFile(), caseDir.toFile());
+    assertTrue(Generator.generateWatched(config, tempDir));
+    assertEquals(
+      TypeScriptCorpusTest.read(caseDir.resolve("ts/orders.d.ts")),
+      TypeScriptCorpusTest.read(temp.getRoot().toPath().resolve("generated/ts/orders.d.ts"))
+    );
+  }
+
+  @Test
+  public void messagesGoToConfiguredLog() throws Exception {
+    List<String> info = new ArrayList<>();
+    List<String> warn = new ArrayList<>();
+    new Generator(GeneratorConfig.builder()
+      .projectName(TypeScriptCorpusTest.PROJECT_NAME)
+      .inputDir(TypeScriptCorpusTest.CORPUS.resolve("basic/idl").toString())
+      .generatedSourceDir(temp.newFolder("generated").getPath())
+      .thriftExecutable(TypeScriptCorpusTest.STUB_COMPILER)
+      .log(info::add, warn::add)
+      .build()
+    ).generate();
+    assertTrue(info.toString(), info.contains("6 files changed, 0 untouched, 0 removed"));
+    assertEquals(Collections.emptyList(), warn);
+  }
+
+  @Test
+  public void parallelGenerationEqualsSequential() throws Exception {
+    Map<String, String> sequential = generate(TypeScriptCorpusTest.CORPUS.resolve("generated"), builder -> builder.workers(1));
+    Map<String, String> parallel = generate(TypeScriptCorpusTest.CORPUS.resolve("generated"), builder -> builder.workers(8));
+    assertEquals(24, sequential.keySet().stream().filter(f -> f.startsWith("ts/") || f.startsWith("js/")).count());
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  public void incrementalGenerationFollowsIncludes() throws Exception {
+    Path caseDir = temp.getRoot().toPath().resolve("generated");
+    FileUtils.copyDirectory(TypeScriptCorpusTest.CORPUS.resolve("generated").toFile(), caseDir.toFile());
+    List<String> info = new ArrayList<>();
+    GeneratorConfig config = GeneratorConfig.builder()
+      .projectName(TypeScriptCorpusTest.PROJECT_NAME)
+      .inputDir(caseDir.resolve("idl").toString())
+      .generatedSourceDir(temp.newFolder("generated-sources").getPath())
+      .thriftExecutable(TypeScriptCorpusTest.STUB_COMPILER)
+      .incremental(true)
+      .log(info::add, warn -> {})
+      .build();
+    new Generator(config).generate();
+    Path m6 = caseDir.resolve("idl/d1/s0/m6.thrift");
+    Files.write(m6, "// changed\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    info.clear();
+    new Generator(config).generate();
+    assertTrue(info.toString(), info.contains("regenerating 4 of 12 Thrift files"));
+    assertTrue(info.toString(), info.stream().anyMatch(line -> line.startsWith("Thrift compiler: 4 runs,")));
+    Files.delete(caseDir.resolve("idl/d1/s2/m11.thrift"));
+    info.clear();
+    new Generator(config).generate();
+    assertTrue(info.toString(), info.contains("regenerating 0 of 11 Thrift files"));
+    assertFalse(tree(config.generatedSourceDir()).containsKey("ts/gen.m11.d.ts"));
+    assertEquals(generate(caseDir, builder -> {}), tree(config.generatedSourceDir()));
+  }
+
+  @Test
+  public void unchangedOutputsAreNotWritten() throws Exception {
+    List<String> info = new ArrayList<>();
+    GeneratorConfig config = GeneratorConfig.builder()
+      .projectName(TypeScriptCorpusTest.PROJECT_NAME)
+      .inputDir(TypeScriptCorpusTest.CORPUS.resolve("basic/idl").toString())
+      .generatedSourceDir(temp.newFolder("generated").getPath())
+      .thriftExecutable(TypeScriptCorpusTest.STUB_COMPILER)
+      .log(info::add, warn -> {})
+      .build();
+    new Generator(config).generate();
+    Map<String, String> generated = tree(config.generatedSourceDir());
+    FileTime past = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+    for (String file : generated.keySet()) {
+      Files.setLastModifiedTime(Paths.get(config.generatedSourceDir(), file), past);
+    }
+    info.clear();
+    new Generator(config).generate();
+    assertTrue(info.toString(), info.contains("0 files changed, 6 untouched, 0 removed"));
+    assertEquals(generated, tree(config.generatedSourceDir()));
+    for (String file : generated.keySet()) {
+      if (file.startsWith("ts/") || file.startsWith("js/")) {
+        assertEquals(file, past, Files.getLastModifiedTime(Paths.get(config.generatedSourceDir(), file)));
+      }
+    }
+  }
+
+  @Test
+  public void mergedShardsEqualSingleRun() throws Exception {
+    Path caseDir = TypeScriptCorpusTest.CORPUS.resolve("generated");
+    List<String> shardDirs = new ArrayList<>();
+    for (int shard = 1; shard <= 3; shard++) {
+      int index = shard;
+      String shardDir = temp.newFolder().getPath();
+      generate(caseDir, builder -> builder.generatedSourceDir(shardDir).shard(index, 3));
+      shardDirs.add(shardDir);
+    }
+    String merged = temp.newFolder("merged").getPath();
+    List<String> info = new ArrayList<>();
+    ShardMerge.merge(shardDirs, merged, false, new Profile(), new Log(info::add, warn -> {}));
+    assertTrue(info.toString(), info.contains("merged 3 shards of 12 Thrift files"));
+    assertEquals(generate(caseDir, builder -> {}), tree(merged));
+  }
+
+  @Test
+  public void angularServicesWrapClientsOfExtendedServices() throws Exception {
+    Path fixture = Paths.get("src/test/resources/io/t2ng/angular").toAbsolutePath();
+    String generatedSourceDir = temp.newFolder("angular").getPath();
+    Map<String, String> generated = generate(fixture, builder -> builder
+      .generatedSourceDir(generatedSourceDir)
+      .typeScriptOnly(true)
+      .angularServices(true));
+    assertEquals(
+      TypeScriptCorpusTest.read(fixture.resolve("ts/ng.app.service.ts")),
+      generated.get("ts/ng.app.service.ts")
+    );
+    assertEquals(
+      TypeScriptCorpusTest.read(fixture.resolve("ts/ng.base.service.ts")),
+      generated.get("ts/ng.base.service.ts")
+    );
+    assertEquals(String.join(format("%n"), AngularSupport.module()) + format("%n"), generated.get("ts/angular-support.ts"));
+    Manifest manifest = Manifest.read(generatedSourceDir, Log.STANDARD).get();
+    assertEquals(Collections.singleton("ts/angular-support.ts"), manifest.projectOutputs());
+    assertTrue(manifest.outputs("app/users.thrift").contains("ts/ng.app.service.ts"));
+  }
+
+  @Test
+  public void multiplexedServicesAreGeneratedByFirstShard() throws Exception {
+    Path fixture = JavaScriptModuleTransformerTest.FIXTURE;
+    Path expected = fixture.resolve("multiplexed");
+    Map<String, String> commonJs = generate(fixture, builder -> builder
+      .projectName("t2ng")
+      .thriftExecutable(JavaScriptModuleTransformerTest.STUB_COMPILER)
+      .multiplex(true));
+    assertEquals(
+      TypeScriptCorpusTest.read(expected.resolve("MultiplexedProcessors.java")),
+      commonJs.get("java/io/syn/MultiplexedProcessors.java")
+    );
+    assertEquals(TypeScriptCorpusTest.read(expected.resolve("commonjs.js")), commonJs.get("js/multiplexed-clients.js"));
+    assertEquals(
+      TypeScriptCorpusTest.read(expected.resolve("multiplexed-clients.d.ts")),
+      commonJs.get("ts/multiplexed-clients.d.ts")
+    );
+    Map<String, String> esm = generate(fixture, builder -> builder
+      .projectName("t2ng")
+      .thriftExecutable(JavaScriptModuleTransformerTest.STUB_COMPILER)
+      .multiplex(true)
+      .esModules(true));
+    assertEquals(TypeScriptCorpusTest.read(expected.resolve("esm.js")), esm.get("js/multiplexed-clients.js"));
+    assertEquals(commonJs.get("ts/multiplexed-clients.d.ts"), esm.get("ts/multiplexed-clients.d.ts"));
+    for (int shard = 1; shard <= 2; shard++) {
+      int index = shard;
+      String shardDir = temp.newFolder().getPath();
+      Map<String, String> generated = generate(fixture, builder -> builder
+        .generatedSourceDir(shardDir)
+        .projectName("t2ng")
+        .thriftExecutable(JavaScriptModuleTransformerTest.STUB_COMPILER)
+        .multiplex(true)
+        .shard(index, 2));
+      assertEquals(
+        format("shard %d", shard),
+        shard == 1,
+        generated.containsKey("js/multiplexed-clients.js")
+          && generated.containsKey("ts/multiplexed-clients.d.ts")
+          && generated.containsKey("java/io/syn/MultiplexedProcessors.java")
+      );
+      assertEquals(
+        format("shard %d", shard),
+        shard == 1 ? 3 : 0,
+        Manifest.read(shardDir, Log.STANDARD).get().projectOutputs().size()
+      );
+    }
+  }
+
+  /**
+   * @return generated files of corpus case
+   */
+  private Map<String, String> generate(Path caseDir, Consumer<GeneratorConfig.Builder> options) throws Exception {
+    GeneratorConfig.Builder builder = GeneratorConfig.builder()
+      .projectName(TypeScriptCorpusTest.PROJECT_NAME)
+      .inputDir(caseDir.resolve("idl").toString())
+      .generatedSourceDir(temp.newFolder().getPath())
+      .thriftExecutable(TypeScriptCorpusTest.STUB_COMPILER)
+      .log(info -> {}, warn -> {});
+    options.accept(builder);
+    GeneratorConfig config = builder.build();
+    new Generator(config).generate();
+    return tree(config.generatedSourceDir());
+  }
+
+  /**
+   * @return content of all files under the directory by their relative paths
+   */
+  static Map<String, String> tree(String dir) throws IOException {
+    Path root = Paths.get(dir);
+    Map<String, String> tree = new TreeMap<>();
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+        tree.put(root.relativize(file).toString(), TypeScriptCorpusTest.read(file));
+      }
+    }
+    return tree;
+  }
+}
@@ -0,0 +1,50 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.fail;
+
+public class InputWatcherTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void reportsThriftFilesOfNewDirectoriesOnly() throws Exception {
+    Path root = temp.newFolder("idl").toPath();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (InputWatcher watcher = new InputWatcher(root)) {
+      Path dir = Files.createDirectories(root.resolve("nested"));
+      executor.submit(() -> {
+        watcher.awaitChanges();
+        return null;
+      }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      Future<?> changes = executor.submit(() -> {
+        watcher.awaitChanges();
+        return null;
+      });
+      Files.write(dir.resolve("notes.txt"), new byte[]{1});
+      try {
+        changes.get(1, TimeUnit.SECONDS);
+        fail("change of file other than Thrift one is reported");
+      } catch (TimeoutException expected) {
+      }
+      Files.write(dir.resolve("a.thrift"), new byte[]{1});
+      changes.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
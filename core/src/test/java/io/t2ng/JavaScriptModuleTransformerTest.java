@@ -0,0 +1,69 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Loads modules generated from {@code src/test/resources/io/t2ng/javascript/idl}
+ * by node, with the stub compiler of benchmarks emitting JavaScript shaped
+ * like the one of Thrift compiler. Skipped when node is not installed
+ */
+public class JavaScriptModuleTransformerTest {
+
+  static final Path FIXTURE = Paths.get("src/test/resources/io/t2ng/javascript").toAbsolutePath();
+  static final String STUB_COMPILER = Paths.get("../benchmarks/src/main/resources/io/t2ng/thrift")
+    .toAbsolutePath()
+    .normalize()
+    .toString();
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void generatedModulesLoadInNode() throws Exception {
+    assumeTrue("node is not installed", runs("node", "--version"));
+    File generated = temp.newFolder("generated");
+    new Generator(GeneratorConfig.builder()
+      .projectName("t2ng")
+      .inputDir(FIXTURE.resolve("idl").toString())
+      .generatedSourceDir(generated.getPath())
+      .thriftExecutable(STUB_COMPILER)
+      .log(info -> {}, warn -> {})
+      .build()
+    ).generate();
+    Path modules = temp.newFolder("node_modules").toPath();
+    Files.createSymbolicLink(modules.resolve("t2ng"), generated.toPath().resolve("js"));
+    ProcessBuilder node = new ProcessBuilder("node", FIXTURE.resolve("load.js").toString())
+      .redirectErrorStream(true)
+      .redirectOutput(temp.newFile("node.log"));
+    node.environment().put("NODE_PATH", format("%s%s%s", modules, File.pathSeparator, FIXTURE));
+    Process process = node.start();
+    assertTrue("node timed out", process.waitFor(1, TimeUnit.MINUTES));
+    assertEquals(
+      TypeScriptCorpusTest.read(temp.getRoot().toPath().resolve("node.log")),
+      0,
+      process.exitValue()
+    );
+  }
+
+  static boolean runs(String... command) throws InterruptedException {
+    try {
+      return new ProcessBuilder(command).start().waitFor() == 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
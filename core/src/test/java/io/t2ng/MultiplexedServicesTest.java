@@ -0,0 +1,76 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MultiplexedServicesTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void javaPackageIsCommonPrefixOfNamespaces() throws IOException {
+    assertEquals("io.app", javaPackage("io.app.users", "io.app.orders.v2"));
+    assertEquals("io.app", javaPackage("io.app", "io.app.orders"));
+    assertEquals("io.app", javaPackage("io.app.orders", "io.app"));
+    assertEquals("io.app.orders", javaPackage("io.app.orders", "io.app.orders"));
+    assertEquals("io", javaPackage("io.app", "io.apps"));
+    assertEquals("", javaPackage("io.app", "com.app"));
+    assertEquals("io.app.users", javaPackage("io.app.users"));
+  }
+
+  @Test
+  public void javaPackageIsDefaultOneWithoutNamespace() throws IOException {
+    assertEquals("", javaPackage("io.app.users", null));
+    assertEquals("", javaPackage(null, "io.app.users"));
+    assertEquals("", javaPackage((String) null));
+    assertEquals("", javaPackage());
+  }
+
+  @Test
+  public void servicesOfSameNameFail() throws IOException {
+    ThriftProjectTest.write(temp.getRoot(), "a/users.thrift", "namespace js a\nservice Users {}\n");
+    ThriftProjectTest.write(temp.getRoot(), "b/users.thrift", "namespace js b\nservice Users {}\n");
+    Workspace workspace = Workspace.scan(temp.getRoot().getPath());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    try {
+      MultiplexedServices.of(project.files(), "t2ng");
+      fail("duplicate service expected to be reported");
+    } catch (RuntimeException e) {
+      assertEquals(
+        format(
+          "service Users is defined in both %s and %s, multiplexed services need unique names",
+          new File(temp.getRoot(), "a/users.thrift").getAbsoluteFile(),
+          new File(temp.getRoot(), "b/users.thrift").getAbsoluteFile()
+        ),
+        e.getMessage()
+      );
+    }
+  }
+
+  /**
+   * @param javaNamespaces java namespaces of files declaring one service each, null for none
+   */
+  private String javaPackage(String... javaNamespaces) throws IOException {
+    File root = temp.newFolder();
+    for (int i = 0; i < javaNamespaces.length; i++) {
+      ThriftProjectTest.write(root, format("s%d.thrift", i), format(
+        "%snamespace js s%d\nservice S%d {}\n",
+        javaNamespaces[i] == null ? "" : format("namespace java %s\n", javaNamespaces[i]),
+        i,
+        i
+      ));
+    }
+    Workspace workspace = Workspace.scan(root.getPath());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    return MultiplexedServices.of(project.files(), "t2ng").javaPackage();
+  }
+}
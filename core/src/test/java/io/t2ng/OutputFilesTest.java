@@ -0,0 +1,67 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class OutputFilesTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void newOutputGetsDefaultPermissions() throws IOException {
+    assumePosix();
+    Path dir = temp.newFolder("out").toPath();
+    Set<PosixFilePermission> defaults = Files.getPosixFilePermissions(Files.createFile(dir.resolve("reference")));
+    Path written = dir.resolve("written.js");
+    Path concatenated = dir.resolve("all.js");
+    Path copied = dir.resolve("copied.js");
+    OutputFiles.write(written, writer -> writer.write("var a = 1;"));
+    OutputFiles.concatenate(concatenated, Collections.singletonList(written));
+    OutputFiles.copy(written, copied);
+    assertEquals(defaults, Files.getPosixFilePermissions(written));
+    assertEquals(defaults, Files.getPosixFilePermissions(concatenated));
+    assertEquals(defaults, Files.getPosixFilePermissions(copied));
+  }
+
+  @Test
+  public void rewrittenOutputKeepsPermissions() throws IOException {
+    assumePosix();
+    Path target = temp.newFolder("out").toPath().resolve("module.d.ts");
+    OutputFiles.write(target, writer -> writer.write("declare module 'a' {}"));
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+    Files.setPosixFilePermissions(target, permissions);
+    OutputFiles.write(target, writer -> writer.write("declare module 'b' {}"));
+    assertEquals("declare module 'b' {}", TypeScriptCorpusTest.read(target));
+    assertEquals(permissions, Files.getPosixFilePermissions(target));
+  }
+
+  @Test
+  public void sameContentLeavesTargetUntouched() throws IOException {
+    Path dir = temp.newFolder("out").toPath();
+    Path target = dir.resolve("module.js");
+    OutputFiles.write(target, writer -> writer.write("var a = 1;"));
+    long modified = Files.getLastModifiedTime(target).toMillis() - 60_000;
+    Files.setLastModifiedTime(target, FileTime.fromMillis(modified));
+    assertEquals(OutputFiles.UNCHANGED, OutputFiles.write(target, writer -> writer.write("var a = 1;")));
+    assertEquals(modified, Files.getLastModifiedTime(target).toMillis());
+    assertEquals(Collections.singletonList("module.js"), TypeScriptCorpusTest.listFileNames(dir));
+  }
+
+  private void assumePosix() {
+    assumeTrue(temp.getRoot().toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+  }
+}
@@ -0,0 +1,138 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThriftCompilerTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void runsAllGeneratorsOfFileInOneProcess() throws Exception {
+    Path thriftFile = TypeScriptCorpusTest.CORPUS.resolve("basic/idl/common/shared.thrift");
+    ThriftCompiler compiler = new ThriftCompiler(
+      TypeScriptCorpusTest.STUB_COMPILER,
+      Collections.singletonList(thriftFile.getParent().toString()),
+      TimeUnit.MINUTES.toMillis(1)
+    );
+    File outputDir = temp.newFolder("out");
+    ThriftCompiler.Invocation invocation = compiler.compile(
+      thriftFile.toFile(),
+      outputDir.getPath(),
+      Arrays.asList("java", "js:ts")
+    );
+    assertEquals(0, invocation.exitCode());
+    assertEquals(Arrays.asList("java", "js:ts"), invocation.generators());
+    assertTrue(new File(outputDir, "gen-java").isDirectory());
+    assertTrue(new File(outputDir, "gen-js/shared_types.d.ts").isFile());
+    assertEquals(Collections.singletonList(invocation), new ArrayList<>(compiler.invocations()));
+    assertEquals(1, compiler.processesStarted());
+  }
+
+  @Test
+  public void reportsDiagnosticsOfFailedRun() throws Exception {
+    ThriftCompiler compiler = new ThriftCompiler(
+      compiler("i=0\nwhile [ $i -lt 5000 ]; do echo \"warning $i: verbose output\"; i=$((i+1)); done\n"
+        + "echo 'error: bad type' >&2\nexit 2\n"),
+      Collections.emptyList(),
+      TimeUnit.MINUTES.toMillis(1)
+    );
+    try {
+      compiler.compile(temp.newFile("a.thrift"), temp.getRoot().getPath(), Collections.singletonList("js:ts"));
+      fail("compiler expected to fail");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("exited with code 2"));
+      assertTrue(e.getMessage(), e.getMessage().endsWith("error: bad type"));
+    }
+    ThriftCompiler.Invocation invocation = compiler.invocations().iterator().next();
+    assertEquals(2, invocation.exitCode());
+    assertFalse(invocation.timedOut());
+    String diagnostics = invocation.diagnostics();
+    assertTrue(diagnostics.length() < 70 * 1024);
+    assertTrue(diagnostics, diagnostics.matches("(?s)\\.\\.\\. \\d+ bytes skipped\\Rwarning \\d+: verbose output\\R.*"));
+    assertTrue(diagnostics.endsWith("warning 4999: verbose output\nerror: bad type"));
+  }
+
+  @Test
+  public void keepsWholeOutputOfQuietRun() throws Exception {
+    ThriftCompiler compiler = new ThriftCompiler(
+      compiler("echo 'warning: unused include'\necho 'error: bad type' >&2\nexit 1\n"),
+      Collections.emptyList(),
+      TimeUnit.MINUTES.toMillis(1)
+    );
+    try {
+      compiler.compile(temp.newFile("a.thrift"), temp.getRoot().getPath(), Collections.singletonList("js:ts"));
+      fail("compiler expected to fail");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().endsWith("warning: unused include\nerror: bad type"));
+    }
+    assertEquals("warning: unused include\nerror: bad type", compiler.invocations().iterator().next().diagnostics());
+  }
+
+  @Test
+  public void countsEveryStartedProcess() throws Exception {
+    ThriftCompiler compiler = new ThriftCompiler(
+      compiler("[ \"$1\" = -version ] && echo 'Thrift version 0.0.0' && exit 0\nsleep 10\n"),
+      Collections.emptyList(),
+      200
+    );
+    assertEquals(Optional.of("Thrift version 0.0.0"), compiler.version());
+    try {
+      compiler.compile(temp.newFile("a.thrift"), temp.getRoot().getPath(), Collections.singletonList("js:ts"));
+      fail("compiler expected to time out");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("timed out"));
+    }
+    assertEquals(1, compiler.invocations().size());
+    assertTrue(compiler.invocations().iterator().next().timedOut());
+    assertEquals(2, compiler.processesStarted());
+  }
+
+  @Test
+  public void recordsRunKilledOnTimeout() throws Exception {
+    ThriftCompiler compiler = new ThriftCompiler(
+      compiler("echo 'parsing a.thrift'\nsleep 10\n"),
+      Collections.emptyList(),
+      500
+    );
+    File thriftFile = temp.newFile("a.thrift");
+    try {
+      compiler.compile(thriftFile, temp.getRoot().getPath(), Collections.singletonList("js:ts"));
+      fail("compiler expected to time out");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("compiler timed out after 500 ms"));
+      assertTrue(e.getMessage(), e.getMessage().endsWith("parsing a.thrift"));
+    }
+    ThriftCompiler.Invocation invocation = compiler.invocations().iterator().next();
+    assertTrue(invocation.timedOut());
+    assertEquals(thriftFile, invocation.file());
+    assertEquals("parsing a.thrift", invocation.diagnostics());
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(invocation.runNanos()) >= 500);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(invocation.runNanos()) < 10000);
+  }
+
+  private String compiler(String script) throws IOException {
+    File file = temp.newFile("thrift");
+    Files.write(file.toPath(), ("#!/bin/sh\n" + script).getBytes(StandardCharsets.UTF_8));
+    assertTrue(file.setExecutable(true));
+    return file.getPath();
+  }
+}
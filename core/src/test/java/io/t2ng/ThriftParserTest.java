@@ -0,0 +1,190 @@
+package io.t2ng;
+
+import io.t2ng.ThriftDocument.Const;
+import io.t2ng.ThriftDocument.Enum;
+import io.t2ng.ThriftDocument.Field;
+import io.t2ng.ThriftDocument.Function;
+import io.t2ng.ThriftDocument.Service;
+import io.t2ng.ThriftDocument.Struct;
+import io.t2ng.ThriftDocument.Typedef;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThriftParserTest {
+
+  @Test
+  public void readsNamespacesAndIncludes() {
+    ThriftDocument document = parse(
+      "namespace java io.example",
+      "namespace js app.example",
+      "namespace * example (ns = \"all\")",
+      "include \"common/base.thrift\"",
+      "cpp_include \"<vector>\"",
+      "include 'other.thrift'"
+    );
+    Map<String, String> namespaces = new LinkedHashMap<>();
+    namespaces.put("java", "io.example");
+    namespaces.put("js", "app.example");
+    namespaces.put("*", "example");
+    assertEquals(namespaces, document.namespaces());
+    assertEquals(Arrays.asList("base", "other"), document.includes());
+  }
+
+  @Test
+  public void keepsTypedefChains() {
+    ThriftDocument document = parse(
+      "typedef i64 Id",
+      "typedef Id UserId",
+      "typedef base.Id RemoteId",
+      "struct User { 1: UserId id }"
+    );
+    List<Typedef> typedefs = document.definitions(Typedef.class);
+    assertEquals(Arrays.asList("Id", "UserId", "RemoteId"), typedefs.stream().map(Typedef::name).collect(toList()));
+    assertEquals(Arrays.asList("i64", "Id", "base.Id"), typedefs.stream().map(t -> t.type().toString()).collect(toList()));
+    assertEquals("UserId", document.definitions(Struct.class).get(0).fields().get(0).type().toString());
+  }
+
+  @Test
+  public void readsNestedContainers() {
+    ThriftDocument document = parse(
+      "struct Index {",
+      "  1: required map<string, list<set<base.Id>>> byName,",
+      "  2: optional list<map<i32,string>> pages = [{1: \"a\"}, {2: \"b\"}];",
+      "  3: set<string> tags (python.immutable = \"\")",
+      "  4: list cpp_type \"std::vector\" <i8> bytes",
+      "}"
+    );
+    List<Field> fields = document.definitions(Struct.class).get(0).fields();
+    assertEquals(
+      Arrays.asList("map<string,list<set<base.Id>>>", "list<map<i32,string>>", "set<string>", "list<i8>"),
+      fields.stream().map(f -> f.type().toString()).collect(toList())
+    );
+    assertEquals(Arrays.asList(1, 2, 3, 4), fields.stream().map(Field::id).collect(toList()));
+    assertFalse(fields.get(0).isOptional());
+    assertTrue(fields.get(1).isOptional());
+  }
+
+  @Test
+  public void readsServicesExtendingIncludedOnes() {
+    ThriftDocument document = parse(
+      "service Users extends base.Health {",
+      "  User get(1: i64 id) throws (1: base.NotFound notFound, 2: Denied denied),",
+      "  oneway void log(1: string message);",
+      "  async void ping()",
+      "}",
+      "service Health {}"
+    );
+    List<Service> services = document.definitions(Service.class);
+    assertEquals(Optional.of("base.Health"), services.get(0).parent());
+    assertEquals(Optional.empty(), services.get(1).parent());
+    List<Function> functions = services.get(0).functions();
+    assertEquals(Arrays.asList("get", "log", "ping"), functions.stream().map(Function::name).collect(toList()));
+    assertEquals(
+      Arrays.asList("base.NotFound", "Denied"),
+      functions.get(0).exceptions().stream().map(f -> f.type().toString()).collect(toList())
+    );
+    assertEquals(Arrays.asList(false, true, true), functions.stream().map(Function::isOneway).collect(toList()));
+  }
+
+  @Test
+  public void readsAnnotations() {
+    ThriftDocument document = parse(
+      "enum Status { ACTIVE = 1 (label = \"on\"), BLOCKED (deprecated) } (final)",
+      "struct User {",
+      "  1: string name (max = '20')",
+      "} (table = \"users\", cached)",
+      "service Users {",
+      "  User get(1: i64 id) (idempotent = \"true\", timeout = \"10\")",
+      "  void save(1: User user) (idempotent)",
+      "} (version = \"2\")"
+    );
+    Enum status = document.definitions(Enum.class).get(0);
+    Map<String, Integer> values = new LinkedHashMap<>();
+    values.put("ACTIVE", 1);
+    values.put("BLOCKED", 2);
+    assertEquals(values, status.values());
+    assertEquals("1", status.annotations().get("final"));
+    Map<String, String> table = new LinkedHashMap<>();
+    table.put("table", "users");
+    table.put("cached", "1");
+    assertEquals(table, document.definitions(Struct.class).get(0).annotations());
+    Service service = document.definitions(Service.class).get(0);
+    assertEquals("2", service.annotations().get("version"));
+    Map<String, String> get = new LinkedHashMap<>();
+    get.put("idempotent", "true");
+    get.put("timeout", "10");
+    assertEquals(get, service.functions().get(0).annotations());
+    assertEquals("1", service.functions().get(1).annotations().get("idempotent"));
+  }
+
+  @Test
+  public void skipsComments() {
+    ThriftDocument document = parse(
+      "# shell comment struct Hidden {}",
+      "// line comment",
+      "/**",
+      " * doc comment with \"quote and 'apostrophe",
+      " */",
+      "struct /* inline */ Visible {",
+      "  1: i32 a, // trailing",
+      "  2: i32 b # trailing",
+      "}"
+    );
+    List<Struct> structs = document.definitions(Struct.class);
+    assertEquals(1, structs.size());
+    assertEquals("Visible", structs.get(0).name());
+    assertEquals(Arrays.asList("a", "b"), structs.get(0).fields().stream().map(Field::name).collect(toList()));
+  }
+
+  @Test
+  public void resolvesEscapesOfLiterals() {
+    ThriftDocument document = parse(
+      "const string QUOTED = \"a\\\"b\"",
+      "const string APOSTROPHE = 'it\\'s'",
+      "const string BACKSLASH = \"c:\\\\\"",
+      "const map<string, string> M = {\"}\": \"\\\"{\"}",
+      "struct S {",
+      "  1: string s = \"\\\"}\" (doc = \"say \\\"hi\\\"\\n\")",
+      "}"
+    );
+    assertEquals(
+      Arrays.asList("QUOTED", "APOSTROPHE", "BACKSLASH", "M"),
+      document.definitions(Const.class).stream().map(Const::name).collect(toList())
+    );
+    Struct struct = document.definitions(Struct.class).get(0);
+    assertEquals("s", struct.fields().get(0).name());
+    ThriftDocument annotated = parse("struct S {} (doc = \"say \\\"hi\\\"\\n\\ttab\")");
+    assertEquals("say \"hi\"\n\ttab", annotated.definitions(Struct.class).get(0).annotations().get("doc"));
+  }
+
+  @Test
+  public void reportsLineOfError() {
+    try {
+      parse("struct A {", "  1: i32 a", "}", "", "struct B {", "  1: i32 = 4", "}");
+      fail("error expected");
+    } catch (RuntimeException e) {
+      assertEquals("can't parse Thrift file test.thrift at line 6: identifier expected but '=' found", e.getMessage());
+    }
+    try {
+      parse("const string S = \"open");
+      fail("error expected");
+    } catch (RuntimeException e) {
+      assertEquals("can't parse Thrift file test.thrift at line 1: unterminated literal", e.getMessage());
+    }
+  }
+
+  private static ThriftDocument parse(String... lines) {
+    return ThriftParser.parse("test.thrift", String.join("\n", lines));
+  }
+}
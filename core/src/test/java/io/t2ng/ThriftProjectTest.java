@@ -0,0 +1,71 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ThriftProjectTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void includeNextToIncludingFileWins() throws IOException {
+    File root = temp.getRoot();
+    write(root, "a/common.thrift", "namespace js a\n");
+    write(root, "b/common.thrift", "namespace js b\n");
+    write(root, "b/user.thrift", "namespace js b.user\ninclude \"common.thrift\"\n");
+    write(root, "main.thrift", "namespace js main\ninclude \"common.thrift\"\n");
+    Workspace workspace = Workspace.scan(root.getPath());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    assertEquals("b", project.include(file(project, "user.thrift"), "common").jsNamespace());
+    assertEquals("a", project.include(file(project, "main.thrift"), "common").jsNamespace());
+    assertEquals(Arrays.asList("common"), Arrays.asList(project.ambiguousIncludes().keySet().toArray()));
+  }
+
+  @Test
+  public void includingFileOfUnreadableOneFails() throws IOException {
+    File root = temp.getRoot();
+    write(root, "broken.thrift", "namespace js broken\n");
+    write(root, "good.thrift", "namespace js good\ninclude \"broken.thrift\"\n");
+    write(root, "other.thrift", "namespace js other\n");
+    Workspace workspace = Workspace.scan(root.getPath());
+    File broken = new File(root, "broken.thrift");
+    Files.delete(broken.toPath());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    assertEquals(
+      Arrays.asList("other.thrift"),
+      project.files().stream().map(f -> f.file().getName()).collect(toList())
+    );
+    assertEquals(
+      Arrays.asList("broken.thrift", "good.thrift"),
+      project.failures().keySet().stream().map(File::getName).sorted().collect(toList())
+    );
+    String message = project.failures().get(new File(root, "good.thrift")).getMessage();
+    assertTrue(message, message.startsWith(format("can't read included file %s", broken)));
+  }
+
+  static ThriftFile file(ThriftProject project, String name) {
+    return project.files().stream()
+      .filter(f -> f.file().getName().equals(name))
+      .findFirst()
+      .orElseThrow(AssertionError::new);
+  }
+
+  static void write(File root, String path, String content) throws IOException {
+    File file = new File(root, path);
+    Files.createDirectories(file.getParentFile().toPath());
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
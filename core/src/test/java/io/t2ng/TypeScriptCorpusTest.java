@@ -0,0 +1,213 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Regression corpus of TypeScript declarations, see README of
+ * {@code src/test/resources/io/t2ng/typescript}. Declarations recorded
+ * from {@code thrift --gen js:ts} are adapted both by
+ * {@link TypeScriptRewriter} alone and by the whole generation with stub
+ * compiler, expected modules are kept in {@code ts/} of every case
+ */
+@RunWith(Parameterized.class)
+public class TypeScriptCorpusTest {
+
+  static final Path CORPUS = Paths.get("src/test/resources/io/t2ng/typescript").toAbsolutePath();
+  static final String STUB_COMPILER = CORPUS.resolve("bin/thrift").toString();
+  static final String PROJECT_NAME = "corpus";
+  /**
+   * Cases with declarations recorded from Thrift compiler newer than 0.11,
+   * which declarations emitted from IDL follow
+   */
+  private static final Set<String> RECORDED_BY_NEWER_COMPILER = Collections.singleton("edge");
+
+  @Parameters(name = "{0}")
+  public static List<String> cases() {
+    return Arrays.asList("basic", "generated", "edge");
+  }
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final Path caseDir;
+
+  public TypeScriptCorpusTest(String name) {
+    this.caseDir = CORPUS.resolve(name);
+  }
+
+  @Test
+  public void rewritesRecordedDeclarationsIntoExpectedModules() throws IOException {
+    Workspace workspace = Workspace.scan(caseDir.resolve("idl").toString());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    for (ThriftFile thriftFile : project.files()) {
+      TypeScriptRewriter rewriter = Generator.typeScriptRewriter(
+        thriftFile,
+        Generator.buildIncludedNamespaces(project, thriftFile)
+      );
+      List<String> module = new ArrayList<>();
+      module.add(format("declare module '%s/%s' {", PROJECT_NAME, thriftFile.jsNamespace()));
+      module.add("import Thrift from 'thrift/Thrift';");
+      module.add(String.join(format("%n"), Generator.composeTypeScriptImports(thriftFile, project, PROJECT_NAME)));
+      for (Path declarations : recordedDeclarations(thriftFile)) {
+        List<String> lines = Files.readAllLines(declarations, StandardCharsets.UTF_8);
+        List<String> members = rewriter.rewrite(lines);
+        assertEquals(declarations.toString(), members, rewriteStreaming(rewriter, lines));
+        module.addAll(members);
+      }
+      module.add("}");
+      Path expected = caseDir.resolve(format("ts/%s.d.ts", thriftFile.jsNamespace()));
+      assertEquals(expected.toString(), read(expected), String.join(format("%n"), module));
+    }
+  }
+
+  @Test
+  public void generatesExpectedModulesWithStubCompiler() throws Exception {
+    File generatedSourceDir = temp.newFolder("generated");
+    new Generator(GeneratorConfig.builder()
+      .projectName(PROJECT_NAME)
+      .inputDir(caseDir.resolve("idl").toString())
+      .generatedSourceDir(generatedSourceDir.getPath())
+      .thriftExecutable(STUB_COMPILER)
+      .build()
+    ).generate();
+    Path expectedDir = caseDir.resolve("ts");
+    Path actualDir = generatedSourceDir.toPath().resolve("ts");
+    assertEquals(listFileNames(expectedDir), listFileNames(actualDir));
+    for (String name : listFileNames(expectedDir)) {
+      assertEquals(name, read(expectedDir.resolve(name)), read(actualDir.resolve(name)));
+    }
+  }
+
+  @Test
+  public void emitsExpectedModulesFromParsedIdl() throws Exception {
+    File generatedSourceDir = temp.newFolder("emitted");
+    new Generator(GeneratorConfig.builder()
+      .projectName(PROJECT_NAME)
+      .inputDir(caseDir.resolve("idl").toString())
+      .generatedSourceDir(generatedSourceDir.getPath())
+      .typeScriptOnly(true)
+      .log(info -> {}, warn -> {})
+      .build()
+    ).generate();
+    Path expectedDir = caseDir.resolve("ts");
+    Path actualDir = generatedSourceDir.toPath().resolve("ts");
+    assertEquals(listFileNames(expectedDir), listFileNames(actualDir));
+    boolean newerCompiler = RECORDED_BY_NEWER_COMPILER.contains(caseDir.getFileName().toString());
+    for (String name : listFileNames(expectedDir)) {
+      List<String> expected = normalize(Files.readAllLines(expectedDir.resolve(name)), newerCompiler);
+      List<String> actual = normalize(Files.readAllLines(actualDir.resolve(name)), newerCompiler);
+      if (newerCompiler) {
+        assertTrue(name, isSubsequence(actual, expected));
+      } else {
+        assertEquals(name, expected, actual);
+      }
+    }
+  }
+
+  /**
+   * Irons out differences of modules adapted from compiler output which
+   * don't change declared types: blank lines, order of imports, the space
+   * eaten by stripping of namespace before a type and exceptions not being
+   * exported. Declarations of newer compiler type i64 as {@code Int64} and
+   * make all constructor arguments optional
+   */
+  private static List<String> normalize(List<String> module, boolean newerCompiler) {
+    List<String> lines = new ArrayList<>();
+    List<String> imports = module.stream().filter(l -> l.startsWith("import {")).sorted().collect(toList());
+    for (String line : module) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      if (line.startsWith("import {")) {
+        if (!imports.isEmpty()) {
+          lines.addAll(imports);
+          imports.clear();
+        }
+        continue;
+      }
+      line = line.replaceAll(":(?=\\S)", ": ")
+        .replaceFirst("^class (\\w+) extends Thrift\\.TException", "export class $1 extends Thrift.TException");
+      if (newerCompiler) {
+        line = line.replaceAll("\\bInt64\\b", "number");
+        if (line.startsWith("constructor(args?: {")) {
+          line = line.replaceAll("(\\w)\\?: ", "$1: ");
+        }
+      }
+      lines.add(line);
+    }
+    return lines;
+  }
+
+  private static boolean isSubsequence(List<String> lines, List<String> of) {
+    int i = 0;
+    for (String line : of) {
+      if (i < lines.size() && lines.get(i).equals(line)) {
+        i++;
+      }
+    }
+    return i == lines.size();
+  }
+
+  /**
+   * @return declarations recorded for the file in the order Thrift
+   * compiler generates them: types first, then services
+   */
+  private List<Path> recordedDeclarations(ThriftFile thriftFile) {
+    String name = thriftFile.file().getName().replace(".thrift", "");
+    Path recorded = caseDir.resolve("gen-js").resolve(name);
+    List<Path> files = new ArrayList<>();
+    Path types = recorded.resolve(format("%s_types.d.ts", name));
+    if (Files.isRegularFile(types)) {
+      files.add(types);
+    }
+    for (String service : thriftFile.services()) {
+      files.add(recorded.resolve(format("%s.d.ts", service)));
+    }
+    return files;
+  }
+
+  private static List<String> rewriteStreaming(TypeScriptRewriter rewriter, List<String> lines) throws IOException {
+    StringWriter output = new StringWriter();
+    try (BufferedWriter writer = new BufferedWriter(output)) {
+      rewriter.rewrite(new BufferedReader(new StringReader(String.join("\n", lines))), writer);
+    }
+    return new BufferedReader(new StringReader(output.toString())).lines().collect(toList());
+  }
+
+  static List<String> listFileNames(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.map(f -> f.getFileName().toString()).sorted().collect(toList());
+    }
+  }
+
+  static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,38 @@
+package io.t2ng;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TypeScriptEmitterTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void serviceExtendingItselfFails() throws IOException {
+    ThriftProjectTest.write(temp.getRoot(), "a/a.thrift", "namespace js a\ninclude \"b.thrift\"\nservice A extends b.B {}\n");
+    ThriftProjectTest.write(temp.getRoot(), "b/b.thrift", "namespace js b\ninclude \"a.thrift\"\nservice B extends a.A {}\n");
+    Workspace workspace = Workspace.scan(temp.getRoot().getPath());
+    ThriftProject project = ThriftProject.scan(workspace.thriftFiles(), workspace);
+    TypeScriptEmitter emitter = new TypeScriptEmitter(project, "t2ng");
+    ThriftFile a = ThriftProjectTest.file(project, "a.thrift");
+    try {
+      emitter.emitAngularServices(a);
+      fail("cycle expected to be reported");
+    } catch (RuntimeException e) {
+      assertEquals("service A extends itself through A -> b.B -> a.A", e.getMessage());
+    }
+    try {
+      emitter.emit(a);
+      fail("cycle expected to be reported");
+    } catch (RuntimeException e) {
+      assertEquals("service A extends itself through A -> b.B -> a.A", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,18 @@
+namespace java io.t2ng.angular.app
+namespace js ng.app
+
+include "base.thrift"
+
+typedef i64 UserId
+
+struct User {
+  1: UserId id,
+  2: optional string name
+}
+
+service Users extends base.Health {
+  User get(1: UserId id) throws (1: base.Unavailable unavailable) (idempotent)
+  list<User> find(1: string query) (idempotent = "false")
+  i32 count() (idempotent = "0")
+  void save(1: User user)
+}
@@ -0,0 +1,11 @@
+namespace java io.t2ng.angular.base
+namespace js ng.base
+
+exception Unavailable {
+  1: string reason
+}
+
+service Health {
+  string ping() (idempotent = "true")
+  oneway void report(1: string message)
+}
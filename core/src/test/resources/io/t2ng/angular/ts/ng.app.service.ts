@@ -0,0 +1,47 @@
+import { Injectable, Optional } from '@angular/core';
+import { ThriftCacheConfig, ThriftCallStats, ThriftCalls, ThriftClientFactory } from './angular-support';
+import { User, UsersClient } from 'corpus/ng.app';
+
+@Injectable()
+export class Users {
+
+  private readonly client: UsersClient;
+  private readonly calls: ThriftCalls;
+
+  constructor(factory: ThriftClientFactory, @Optional() config: ThriftCacheConfig) {
+    this.client = factory.create('Users', UsersClient);
+    this.calls = new ThriftCalls(config || new ThriftCacheConfig());
+  }
+
+  get stats(): ThriftCallStats {
+    return this.calls.stats;
+  }
+
+  clearCache(): void {
+    this.calls.clear();
+  }
+
+  get(id: number): Promise<User> {
+    return this.calls.call<User>('get', [id], true, callback => this.client.get(id, callback));
+  }
+
+  find(query: string): Promise<User[]> {
+    return this.calls.call<User[]>('find', [query], false, callback => this.client.find(query, callback));
+  }
+
+  count(): Promise<number> {
+    return this.calls.call<number>('count', [], false, callback => this.client.count(callback));
+  }
+
+  save(user: User): Promise<void> {
+    return this.calls.call<void>('save', [user], false, callback => this.client.save(user, callback));
+  }
+
+  ping(): Promise<string> {
+    return this.calls.call<string>('ping', [], true, callback => this.client.ping(callback));
+  }
+
+  report(message: string): Promise<void> {
+    return this.calls.send<void>(callback => this.client.report(message, callback));
+  }
+}
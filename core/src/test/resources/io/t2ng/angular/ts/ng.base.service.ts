@@ -0,0 +1,31 @@
+import { Injectable, Optional } from '@angular/core';
+import { ThriftCacheConfig, ThriftCallStats, ThriftCalls, ThriftClientFactory } from './angular-support';
+import { HealthClient } from 'corpus/ng.base';
+
+@Injectable()
+export class Health {
+
+  private readonly client: HealthClient;
+  private readonly calls: ThriftCalls;
+
+  constructor(factory: ThriftClientFactory, @Optional() config: ThriftCacheConfig) {
+    this.client = factory.create('Health', HealthClient);
+    this.calls = new ThriftCalls(config || new ThriftCacheConfig());
+  }
+
+  get stats(): ThriftCallStats {
+    return this.calls.stats;
+  }
+
+  clearCache(): void {
+    this.calls.clear();
+  }
+
+  ping(): Promise<string> {
+    return this.calls.call<string>('ping', [], true, callback => this.client.ping(callback));
+  }
+
+  report(message: string): Promise<void> {
+    return this.calls.send<void>(callback => this.client.report(message, callback));
+  }
+}
@@ -0,0 +1,14 @@
+namespace java io.syn.m1
+namespace js syn.m1
+
+include "m0.thrift"
+
+struct S1_0 {
+  1: i64 id,
+  10: m0.S0_0 ref0,
+  11: list<m0.E0> es0
+}
+
+service Svc1 {
+  list<S1_0> by0(1: m0.S0_0 key)
+}
@@ -0,0 +1,16 @@
+namespace java io.syn.m2
+namespace js syn.m0.ext
+
+include "m0.thrift"
+
+enum E2 {
+  A,
+  B = 4,
+  C
+}
+
+struct S2_0 {
+  1: i64 id,
+  10: m0.S0_0 ref0,
+  3: E2 kind
+}
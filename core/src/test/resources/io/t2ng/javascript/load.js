@@ -0,0 +1,18 @@
+// Loads modules generated from idl/ with project name t2ng and checks
+// their exports
+var assert = require('assert');
+var Thrift = require('thrift/Thrift');
+var m0 = require('t2ng/syn.m0');
+var m1 = require('t2ng/syn.m1');
+
+assert.deepStrictEqual(m0.E0, { A: 0, B: 4, C: 5 });
+assert.strictEqual(new m0.S0_0({ id: 1, name: 'a' }).name, 'a');
+assert.ok(new m0.X0({ message: 'm' }) instanceof Thrift.TException);
+assert.strictEqual(typeof m0.Svc0Client.prototype.get, 'function');
+assert.strictEqual(m0.Svc0_get_args, undefined);
+assert.ok(new m1.S1_0({ ref0: new m0.S0_0() }).ref0 instanceof m0.S0_0);
+assert.strictEqual(typeof m1.Svc1Client.prototype.by0, 'function');
+assert.deepStrictEqual(Object.keys(m1).sort(), ['S1_0', 'Svc1Client']);
+var ext = require('t2ng/syn.m0.ext');
+assert.deepStrictEqual(Object.keys(ext).sort(), ['E2', 'S2_0']);
+assert.deepStrictEqual(Object.keys(m0).sort(), ['E0', 'S0_0', 'Svc0Client', 'X0']);
@@ -0,0 +1,18 @@
+// Imports ES modules generated from idl/ with project name t2ng and
+// checks their exports
+import assert from 'assert';
+import Thrift from 'thrift/Thrift';
+import * as m0 from 't2ng/syn.m0';
+import * as m1 from 't2ng/syn.m1';
+import * as ext from 't2ng/syn.m0.ext';
+
+assert.deepStrictEqual(m0.E0, { A: 0, B: 4, C: 5 });
+assert.strictEqual(new m0.S0_0({ id: 1, name: 'a' }).name, 'a');
+assert.ok(new m0.X0({ message: 'm' }) instanceof Thrift.TException);
+assert.strictEqual(typeof m0.Svc0Client.prototype.get, 'function');
+assert.deepStrictEqual(Object.keys(m0).sort(), ['E0', 'S0_0', 'Svc0Client', 'X0']);
+assert.ok(new m1.S1_0({ ref0: new m0.S0_0() }).ref0 instanceof m0.S0_0);
+assert.deepStrictEqual(Object.keys(m1).sort(), ['S1_0', 'Svc1Client']);
+assert.deepStrictEqual(ext.E2, { A: 0, B: 4, C: 5 });
+assert.ok(new ext.S2_0({ ref0: new m0.S0_0() }).ref0 instanceof m0.S0_0);
+assert.deepStrictEqual(Object.keys(ext).sort(), ['E2', 'S2_0']);
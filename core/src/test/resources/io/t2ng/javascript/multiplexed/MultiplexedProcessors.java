@@ -0,0 +1,26 @@
+package io.syn;
+
+import org.apache.thrift.TMultiplexedProcessor;
+
+/**
+ * Registers processors of services of t2ng, so all of them are served behind one endpoint.
+ * Services are registered by the same names clients of {@code t2ng/multiplexed-clients} use
+ */
+public final class MultiplexedProcessors {
+
+  private final TMultiplexedProcessor processor = new TMultiplexedProcessor();
+
+  public MultiplexedProcessors registerSvc0(io.syn.m0.Svc0.Iface handler) {
+    processor.registerProcessor("Svc0", new io.syn.m0.Svc0.Processor<io.syn.m0.Svc0.Iface>(handler));
+    return this;
+  }
+
+  public MultiplexedProcessors registerSvc1(io.syn.m1.Svc1.Iface handler) {
+    processor.registerProcessor("Svc1", new io.syn.m1.Svc1.Processor<io.syn.m1.Svc1.Iface>(handler));
+    return this;
+  }
+
+  public TMultiplexedProcessor processor() {
+    return processor;
+  }
+}
@@ -0,0 +1,8 @@
+var Thrift = require('thrift/Thrift');
+exports.createClients = function (transport) {
+  var multiplexer = new Thrift.Multiplexer();
+  return {
+    Svc0: multiplexer.createClient('Svc0', require('t2ng/syn.m0').Svc0Client, transport),
+    Svc1: multiplexer.createClient('Svc1', require('t2ng/syn.m1').Svc1Client, transport)
+  };
+};
@@ -0,0 +1,10 @@
+import Thrift from 'thrift/Thrift';
+import { Svc0Client } from 't2ng/syn.m0';
+import { Svc1Client } from 't2ng/syn.m1';
+export function createClients(transport) {
+  var multiplexer = new Thrift.Multiplexer();
+  return {
+    Svc0: multiplexer.createClient('Svc0', Svc0Client, transport),
+    Svc1: multiplexer.createClient('Svc1', Svc1Client, transport)
+  };
+}
@@ -0,0 +1,10 @@
+declare module 't2ng/multiplexed-clients' {
+import Thrift from 'thrift/Thrift';
+import { Svc0Client } from 't2ng/syn.m0';
+import { Svc1Client } from 't2ng/syn.m1';
+export interface MultiplexedClients {
+Svc0: Svc0Client;
+Svc1: Svc1Client;
+}
+export function createClients(transport: Thrift.Transport): MultiplexedClients;
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+// Part of thrift/Thrift node module which generated modules rely on
+
+exports.TException = function(message) {
+  this.message = message;
+};
+
+exports.inherits = function(constructor, superConstructor) {
+  constructor.prototype = Object.create(superConstructor.prototype, {
+    constructor: { value: constructor }
+  });
+};
@@ -0,0 +1,27 @@
+namespace java io.example.orders
+namespace js orders
+
+include "shared.thrift"
+include "users.thrift"
+
+enum OrderState {
+  NEW,
+  PAID,
+  SHIPPED
+}
+
+struct Order {
+  1: i64 id,
+  2: users.User owner,
+  3: shared.Money total,
+  4: OrderState state
+}
+
+service OrderService {
+  Order place(1: users.User owner, 2: shared.Money total) throws (1: shared.NotFound missing)
+  list<Order> byOwner(1: i64 ownerId)
+}
+
+service AuditService {
+  void record(1: Order order)
+}
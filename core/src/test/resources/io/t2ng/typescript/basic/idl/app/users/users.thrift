@@ -0,0 +1,18 @@
+namespace java io.example.users
+namespace js app.users
+
+include "shared.thrift"
+
+struct User {
+  1: i64 id,
+  2: string name,
+  3: shared.Status status,
+  4: list<shared.Money> balances,
+  5: map<string, string> attributes
+}
+
+service UserService {
+  User getUser(1: i64 id) throws (1: shared.NotFound notFound)
+  list<User> findUsers(1: string query, 2: shared.Status status)
+  void block(1: i64 id)
+}
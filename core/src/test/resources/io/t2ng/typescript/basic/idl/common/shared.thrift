@@ -0,0 +1,16 @@
+namespace java io.example.shared
+namespace js app.shared
+
+enum Status {
+  ACTIVE = 1,
+  BLOCKED = 2
+}
+
+struct Money {
+  1: required i64 amount,
+  2: string currency
+}
+
+exception NotFound {
+  1: string message
+}
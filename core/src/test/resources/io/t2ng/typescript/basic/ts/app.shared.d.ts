@@ -0,0 +1,17 @@
+declare module 'corpus/app.shared' {
+import Thrift from 'thrift/Thrift';
+
+export enum Status {
+ACTIVE = 1,
+BLOCKED = 2,
+}
+export class Money {
+amount: number;
+currency: string;
+constructor(args?: { amount: number; currency: string; });
+}
+class NotFound extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+}
\ No newline at end of file
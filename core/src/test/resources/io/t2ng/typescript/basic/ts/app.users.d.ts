@@ -0,0 +1,26 @@
+declare module 'corpus/app.users' {
+import Thrift from 'thrift/Thrift';
+import { Status } from 'corpus/app.shared';
+import { Money } from 'corpus/app.shared';
+import { NotFound } from 'corpus/app.shared';
+export class User {
+id: number;
+name: string;
+status:Status;
+balances:Money[];
+attributes: { [k: string]: string; };
+constructor(args?: { id: number; name: string; status:Status; balances:Money[]; attributes: { [k: string]: string; }; });
+}
+export class UserServiceClient {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+getUser(id: number): User;
+getUser(id: number, callback?: (data: User)=>void): JQueryXHR;
+findUsers(query: string, status:Status): User[];
+findUsers(query: string, status:Status, callback?: (data: User[])=>void): JQueryXHR;
+block(id: number): void;
+block(id: number, callback?: (data: void)=>void): JQueryXHR;
+}
+}
\ No newline at end of file
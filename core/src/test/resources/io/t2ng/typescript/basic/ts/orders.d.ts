@@ -0,0 +1,36 @@
+declare module 'corpus/orders' {
+import Thrift from 'thrift/Thrift';
+import { Money } from 'corpus/app.shared';
+import { NotFound } from 'corpus/app.shared';
+import { User } from 'corpus/app.users';
+export enum OrderState {
+NEW = 0,
+PAID = 1,
+SHIPPED = 2,
+}
+export class Order {
+id: number;
+owner:User;
+total:Money;
+state: OrderState;
+constructor(args?: { id: number; owner:User; total:Money; state: OrderState; });
+}
+export class OrderServiceClient {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+place(owner:User, total:Money): Order;
+place(owner:User, total:Money, callback?: (data: Order)=>void): JQueryXHR;
+byOwner(ownerId: number): Order[];
+byOwner(ownerId: number, callback?: (data: Order[])=>void): JQueryXHR;
+}
+export class AuditServiceClient {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+record(order: Order): void;
+record(order: Order, callback?: (data: void)=>void): JQueryXHR;
+}
+}
\ No newline at end of file
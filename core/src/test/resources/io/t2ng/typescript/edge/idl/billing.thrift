@@ -0,0 +1,23 @@
+namespace java com.acme.billing
+namespace js billing
+
+include "base_types.thrift"
+
+enum InvoiceState {
+  DRAFT,
+  ISSUED
+}
+
+struct Invoice {
+  1: i64 id,
+  2: base_types.Amount total,
+  3: list<base_types.Amount> lines,
+  4: map<string, base_types.Currency> rates,
+  5: InvoiceState state
+}
+
+// struct Obsolete is not generated
+service Billing {
+  Invoice issue(1: base_types.Amount total) throws (1: base_types.Rejected rejected),
+  void cancel(1: i64 id)
+}
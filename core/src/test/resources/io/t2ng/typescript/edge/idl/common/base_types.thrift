@@ -0,0 +1,19 @@
+namespace java com.acme.base
+namespace js com.acme_corp.base
+
+/**
+ * Currency of an amount
+ */
+enum Currency {
+  EUR = 1,
+  USD = 2
+}
+
+struct Amount {
+  1: required i64 cents,
+  2: Currency currency = Currency.EUR
+}
+
+exception Rejected {
+  1: string reason
+}
@@ -0,0 +1,31 @@
+declare module 'corpus/billing' {
+import Thrift from 'thrift/Thrift';
+import { Amount } from 'corpus/com.acme_corp.base';
+import { Currency } from 'corpus/com.acme_corp.base';
+import { Rejected } from 'corpus/com.acme_corp.base';
+export enum InvoiceState {
+DRAFT = 0,
+ISSUED = 1,
+}
+export class Invoice {
+id: Int64;
+total:Amount;
+lines:Amount[];
+rates: { [k: string]:Currency; };
+state: InvoiceState;
+constructor(args?: { id?: Int64; total?:Amount; lines?:Amount[]; rates?: { [k: string]:Currency; }; state?: InvoiceState; });
+}
+export class BillingClient {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+
+issue(total:Amount): Invoice;
+issue(total:Amount, callback?: (data: Invoice)=>void): JQueryXHR;
+cancel(id: Int64): void;
+cancel(id: Int64, callback?: (data: void)=>void): JQueryXHR;
+typeName: "com.acme_corp.base.Amount";
+com.acme_corp.base.Amount;
+}
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+declare module 'corpus/com.acme_corp.base' {
+import Thrift from 'thrift/Thrift';
+
+/**
+* Currency of an amount
+*/
+export enum Currency {
+EUR = 1,
+USD = 2,
+}
+export class Amount {
+cents: Int64;
+currency: Currency;
+constructor(args?: { cents: Int64; currency?: Currency; });
+}
+class Rejected extends Thrift.TException {
+reason: string;
+constructor(args?: { reason?: string; });
+}
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+namespace java io.gen.m0
+namespace js gen.m0
+
+
+enum E0 {
+  A,
+  B = 4,
+  C
+}
+
+struct S0_0 {
+  1: i64 id,
+  2: string name,
+  20: E0 kind
+}
+
+struct S0_1 {
+  1: i64 id,
+  2: string name,
+  20: E0 kind
+}
+
+struct S0_2 {
+  1: i64 id,
+  2: string name,
+  20: E0 kind
+}
+
+exception X0 {
+  1: string message
+}
+
+service Svc0 {
+  S0_0 get(1: i64 id) throws (1: X0 x)
+}
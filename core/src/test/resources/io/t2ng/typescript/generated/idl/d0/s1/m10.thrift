@@ -0,0 +1,51 @@
+namespace java io.gen.m10
+namespace js gen.m10
+
+include "m0.thrift"
+include "m3.thrift"
+
+enum E10 {
+  A,
+  B = 4,
+  C
+}
+
+struct S10_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  20: E10 kind
+}
+
+struct S10_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  20: E10 kind
+}
+
+struct S10_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  20: E10 kind
+}
+
+exception X10 {
+  1: string message
+}
+
+service Svc10 {
+  S10_0 get(1: i64 id) throws (1: X10 x)
+  list<S10_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S10_1> by3(1: m3.S3_0 key, 2: map<string, m3.E3> m)
+}
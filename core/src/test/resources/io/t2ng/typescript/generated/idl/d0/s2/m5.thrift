@@ -0,0 +1,59 @@
+namespace java io.gen.m5
+namespace js gen.m5
+
+include "m0.thrift"
+include "m1.thrift"
+include "m4.thrift"
+
+enum E5 {
+  A,
+  B = 4,
+  C
+}
+
+struct S5_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  5: m4.S4_0 ref2,
+  12: list<m4.E4> es2,
+  20: E5 kind
+}
+
+struct S5_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  5: m4.S4_0 ref2,
+  12: list<m4.E4> es2,
+  20: E5 kind
+}
+
+struct S5_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  5: m4.S4_0 ref2,
+  12: list<m4.E4> es2,
+  20: E5 kind
+}
+
+exception X5 {
+  1: string message
+}
+
+service Svc5 {
+  S5_0 get(1: i64 id) throws (1: X5 x)
+  list<S5_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S5_1> by1(1: m1.S1_0 key, 2: map<string, m1.E1> m)
+  list<S5_1> by4(1: m4.S4_0 key, 2: map<string, m4.E4> m)
+}
@@ -0,0 +1,51 @@
+namespace java io.gen.m6
+namespace js gen.m6
+
+include "m0.thrift"
+include "m3.thrift"
+
+enum E6 {
+  A,
+  B = 4,
+  C
+}
+
+struct S6_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  20: E6 kind
+}
+
+struct S6_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  20: E6 kind
+}
+
+struct S6_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  20: E6 kind
+}
+
+exception X6 {
+  1: string message
+}
+
+service Svc6 {
+  S6_0 get(1: i64 id) throws (1: X6 x)
+  list<S6_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S6_1> by3(1: m3.S3_0 key, 2: map<string, m3.E3> m)
+}
@@ -0,0 +1,43 @@
+namespace java io.gen.m1
+namespace js gen.m1
+
+include "m0.thrift"
+
+enum E1 {
+  A,
+  B = 4,
+  C
+}
+
+struct S1_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  20: E1 kind
+}
+
+struct S1_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  20: E1 kind
+}
+
+struct S1_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  20: E1 kind
+}
+
+exception X1 {
+  1: string message
+}
+
+service Svc1 {
+  S1_0 get(1: i64 id) throws (1: X1 x)
+  list<S1_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+}
@@ -0,0 +1,59 @@
+namespace java io.gen.m11
+namespace js gen.m11
+
+include "m2.thrift"
+include "m4.thrift"
+include "m8.thrift"
+
+enum E11 {
+  A,
+  B = 4,
+  C
+}
+
+struct S11_0 {
+  1: i64 id,
+  2: string name,
+  3: m2.S2_0 ref0,
+  10: list<m2.E2> es0,
+  4: m4.S4_0 ref1,
+  11: list<m4.E4> es1,
+  5: m8.S8_0 ref2,
+  12: list<m8.E8> es2,
+  20: E11 kind
+}
+
+struct S11_1 {
+  1: i64 id,
+  2: string name,
+  3: m2.S2_0 ref0,
+  10: list<m2.E2> es0,
+  4: m4.S4_0 ref1,
+  11: list<m4.E4> es1,
+  5: m8.S8_0 ref2,
+  12: list<m8.E8> es2,
+  20: E11 kind
+}
+
+struct S11_2 {
+  1: i64 id,
+  2: string name,
+  3: m2.S2_0 ref0,
+  10: list<m2.E2> es0,
+  4: m4.S4_0 ref1,
+  11: list<m4.E4> es1,
+  5: m8.S8_0 ref2,
+  12: list<m8.E8> es2,
+  20: E11 kind
+}
+
+exception X11 {
+  1: string message
+}
+
+service Svc11 {
+  S11_0 get(1: i64 id) throws (1: X11 x)
+  list<S11_1> by2(1: m2.S2_0 key, 2: map<string, m2.E2> m)
+  list<S11_1> by4(1: m4.S4_0 key, 2: map<string, m4.E4> m)
+  list<S11_1> by8(1: m8.S8_0 key, 2: map<string, m8.E8> m)
+}
@@ -0,0 +1,51 @@
+namespace java io.gen.m7
+namespace js gen.m7
+
+include "m0.thrift"
+include "m1.thrift"
+
+enum E7 {
+  A,
+  B = 4,
+  C
+}
+
+struct S7_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  20: E7 kind
+}
+
+struct S7_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  20: E7 kind
+}
+
+struct S7_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  20: E7 kind
+}
+
+exception X7 {
+  1: string message
+}
+
+service Svc7 {
+  S7_0 get(1: i64 id) throws (1: X7 x)
+  list<S7_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S7_1> by1(1: m1.S1_0 key, 2: map<string, m1.E1> m)
+}
@@ -0,0 +1,51 @@
+namespace java io.gen.m3
+namespace js gen.m3
+
+include "m0.thrift"
+include "m2.thrift"
+
+enum E3 {
+  A,
+  B = 4,
+  C
+}
+
+struct S3_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m2.S2_0 ref1,
+  11: list<m2.E2> es1,
+  20: E3 kind
+}
+
+struct S3_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m2.S2_0 ref1,
+  11: list<m2.E2> es1,
+  20: E3 kind
+}
+
+struct S3_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m2.S2_0 ref1,
+  11: list<m2.E2> es1,
+  20: E3 kind
+}
+
+exception X3 {
+  1: string message
+}
+
+service Svc3 {
+  S3_0 get(1: i64 id) throws (1: X3 x)
+  list<S3_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S3_1> by2(1: m2.S2_0 key, 2: map<string, m2.E2> m)
+}
@@ -0,0 +1,59 @@
+namespace java io.gen.m8
+namespace js gen.m8
+
+include "m0.thrift"
+include "m1.thrift"
+include "m6.thrift"
+
+enum E8 {
+  A,
+  B = 4,
+  C
+}
+
+struct S8_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  5: m6.S6_0 ref2,
+  12: list<m6.E6> es2,
+  20: E8 kind
+}
+
+struct S8_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  5: m6.S6_0 ref2,
+  12: list<m6.E6> es2,
+  20: E8 kind
+}
+
+struct S8_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m1.S1_0 ref1,
+  11: list<m1.E1> es1,
+  5: m6.S6_0 ref2,
+  12: list<m6.E6> es2,
+  20: E8 kind
+}
+
+exception X8 {
+  1: string message
+}
+
+service Svc8 {
+  S8_0 get(1: i64 id) throws (1: X8 x)
+  list<S8_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S8_1> by1(1: m1.S1_0 key, 2: map<string, m1.E1> m)
+  list<S8_1> by6(1: m6.S6_0 key, 2: map<string, m6.E6> m)
+}
@@ -0,0 +1,59 @@
+namespace java io.gen.m9
+namespace js gen.m9
+
+include "m0.thrift"
+include "m3.thrift"
+include "m6.thrift"
+
+enum E9 {
+  A,
+  B = 4,
+  C
+}
+
+struct S9_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  5: m6.S6_0 ref2,
+  12: list<m6.E6> es2,
+  20: E9 kind
+}
+
+struct S9_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  5: m6.S6_0 ref2,
+  12: list<m6.E6> es2,
+  20: E9 kind
+}
+
+struct S9_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m3.S3_0 ref1,
+  11: list<m3.E3> es1,
+  5: m6.S6_0 ref2,
+  12: list<m6.E6> es2,
+  20: E9 kind
+}
+
+exception X9 {
+  1: string message
+}
+
+service Svc9 {
+  S9_0 get(1: i64 id) throws (1: X9 x)
+  list<S9_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S9_1> by3(1: m3.S3_0 key, 2: map<string, m3.E3> m)
+  list<S9_1> by6(1: m6.S6_0 key, 2: map<string, m6.E6> m)
+}
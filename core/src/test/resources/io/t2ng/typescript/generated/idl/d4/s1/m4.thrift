@@ -0,0 +1,51 @@
+namespace java io.gen.m4
+namespace js gen.m4
+
+include "m0.thrift"
+include "m2.thrift"
+
+enum E4 {
+  A,
+  B = 4,
+  C
+}
+
+struct S4_0 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m2.S2_0 ref1,
+  11: list<m2.E2> es1,
+  20: E4 kind
+}
+
+struct S4_1 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m2.S2_0 ref1,
+  11: list<m2.E2> es1,
+  20: E4 kind
+}
+
+struct S4_2 {
+  1: i64 id,
+  2: string name,
+  3: m0.S0_0 ref0,
+  10: list<m0.E0> es0,
+  4: m2.S2_0 ref1,
+  11: list<m2.E2> es1,
+  20: E4 kind
+}
+
+exception X4 {
+  1: string message
+}
+
+service Svc4 {
+  S4_0 get(1: i64 id) throws (1: X4 x)
+  list<S4_1> by0(1: m0.S0_0 key, 2: map<string, m0.E0> m)
+  list<S4_1> by2(1: m2.S2_0 key, 2: map<string, m2.E2> m)
+}
@@ -0,0 +1,39 @@
+declare module 'corpus/gen.m0' {
+import Thrift from 'thrift/Thrift';
+
+export enum E0 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S0_0 {
+id: number;
+name: string;
+kind: E0;
+constructor(args?: { id: number; name: string; kind: E0; });
+}
+export class S0_1 {
+id: number;
+name: string;
+kind: E0;
+constructor(args?: { id: number; name: string; kind: E0; });
+}
+export class S0_2 {
+id: number;
+name: string;
+kind: E0;
+constructor(args?: { id: number; name: string; kind: E0; });
+}
+class X0 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc0Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S0_0;
+get(id: number, callback?: (data: S0_0)=>void): JQueryXHR;
+}
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+declare module 'corpus/gen.m1' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+export enum E1 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S1_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+kind: E1;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; kind: E1; });
+}
+export class S1_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+kind: E1;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; kind: E1; });
+}
+export class S1_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+kind: E1;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; kind: E1; });
+}
+class X1 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc1Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S1_0;
+get(id: number, callback?: (data: S1_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S1_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S1_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
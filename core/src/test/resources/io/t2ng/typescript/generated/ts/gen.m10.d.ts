@@ -0,0 +1,58 @@
+declare module 'corpus/gen.m10' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+import { S3_0 } from 'corpus/gen.m3';
+import { E3 } from 'corpus/gen.m3';
+export enum E10 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S10_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S3_0;
+es1:E3[];
+kind: E10;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S3_0; es1:E3[]; kind: E10; });
+}
+export class S10_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S3_0;
+es1:E3[];
+kind: E10;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S3_0; es1:E3[]; kind: E10; });
+}
+export class S10_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S3_0;
+es1:E3[];
+kind: E10;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S3_0; es1:E3[]; kind: E10; });
+}
+class X10 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc10Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S10_0;
+get(id: number, callback?: (data: S10_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S10_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S10_1[])=>void): JQueryXHR;
+by3(key:S3_0, m: { [k: string]:E3; }): S10_1[];
+by3(key:S3_0, m: { [k: string]:E3; }, callback?: (data: S10_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+declare module 'corpus/gen.m11' {
+import Thrift from 'thrift/Thrift';
+import { S2_0 } from 'corpus/gen.m2';
+import { E2 } from 'corpus/gen.m2';
+import { S4_0 } from 'corpus/gen.m4';
+import { E4 } from 'corpus/gen.m4';
+import { S8_0 } from 'corpus/gen.m8';
+import { E8 } from 'corpus/gen.m8';
+export enum E11 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S11_0 {
+id: number;
+name: string;
+ref0:S2_0;
+es0:E2[];
+ref1:S4_0;
+es1:E4[];
+ref2:S8_0;
+es2:E8[];
+kind: E11;
+constructor(args?: { id: number; name: string; ref0:S2_0; es0:E2[]; ref1:S4_0; es1:E4[]; ref2:S8_0; es2:E8[]; kind: E11; });
+}
+export class S11_1 {
+id: number;
+name: string;
+ref0:S2_0;
+es0:E2[];
+ref1:S4_0;
+es1:E4[];
+ref2:S8_0;
+es2:E8[];
+kind: E11;
+constructor(args?: { id: number; name: string; ref0:S2_0; es0:E2[]; ref1:S4_0; es1:E4[]; ref2:S8_0; es2:E8[]; kind: E11; });
+}
+export class S11_2 {
+id: number;
+name: string;
+ref0:S2_0;
+es0:E2[];
+ref1:S4_0;
+es1:E4[];
+ref2:S8_0;
+es2:E8[];
+kind: E11;
+constructor(args?: { id: number; name: string; ref0:S2_0; es0:E2[]; ref1:S4_0; es1:E4[]; ref2:S8_0; es2:E8[]; kind: E11; });
+}
+class X11 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc11Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S11_0;
+get(id: number, callback?: (data: S11_0)=>void): JQueryXHR;
+by2(key:S2_0, m: { [k: string]:E2; }): S11_1[];
+by2(key:S2_0, m: { [k: string]:E2; }, callback?: (data: S11_1[])=>void): JQueryXHR;
+by4(key:S4_0, m: { [k: string]:E4; }): S11_1[];
+by4(key:S4_0, m: { [k: string]:E4; }, callback?: (data: S11_1[])=>void): JQueryXHR;
+by8(key:S8_0, m: { [k: string]:E8; }): S11_1[];
+by8(key:S8_0, m: { [k: string]:E8; }, callback?: (data: S11_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
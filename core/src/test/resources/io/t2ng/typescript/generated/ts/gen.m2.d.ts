@@ -0,0 +1,58 @@
+declare module 'corpus/gen.m2' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+import { S1_0 } from 'corpus/gen.m1';
+import { E1 } from 'corpus/gen.m1';
+export enum E2 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S2_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+kind: E2;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; kind: E2; });
+}
+export class S2_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+kind: E2;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; kind: E2; });
+}
+export class S2_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+kind: E2;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; kind: E2; });
+}
+class X2 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc2Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S2_0;
+get(id: number, callback?: (data: S2_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S2_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S2_1[])=>void): JQueryXHR;
+by1(key:S1_0, m: { [k: string]:E1; }): S2_1[];
+by1(key:S1_0, m: { [k: string]:E1; }, callback?: (data: S2_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+declare module 'corpus/gen.m4' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+import { S2_0 } from 'corpus/gen.m2';
+import { E2 } from 'corpus/gen.m2';
+export enum E4 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S4_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S2_0;
+es1:E2[];
+kind: E4;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S2_0; es1:E2[]; kind: E4; });
+}
+export class S4_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S2_0;
+es1:E2[];
+kind: E4;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S2_0; es1:E2[]; kind: E4; });
+}
+export class S4_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S2_0;
+es1:E2[];
+kind: E4;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S2_0; es1:E2[]; kind: E4; });
+}
+class X4 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc4Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S4_0;
+get(id: number, callback?: (data: S4_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S4_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S4_1[])=>void): JQueryXHR;
+by2(key:S2_0, m: { [k: string]:E2; }): S4_1[];
+by2(key:S2_0, m: { [k: string]:E2; }, callback?: (data: S4_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
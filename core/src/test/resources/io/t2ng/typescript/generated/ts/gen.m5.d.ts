@@ -0,0 +1,68 @@
+declare module 'corpus/gen.m5' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+import { S1_0 } from 'corpus/gen.m1';
+import { E1 } from 'corpus/gen.m1';
+import { S4_0 } from 'corpus/gen.m4';
+import { E4 } from 'corpus/gen.m4';
+export enum E5 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S5_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+ref2:S4_0;
+es2:E4[];
+kind: E5;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; ref2:S4_0; es2:E4[]; kind: E5; });
+}
+export class S5_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+ref2:S4_0;
+es2:E4[];
+kind: E5;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; ref2:S4_0; es2:E4[]; kind: E5; });
+}
+export class S5_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+ref2:S4_0;
+es2:E4[];
+kind: E5;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; ref2:S4_0; es2:E4[]; kind: E5; });
+}
+class X5 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc5Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S5_0;
+get(id: number, callback?: (data: S5_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S5_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S5_1[])=>void): JQueryXHR;
+by1(key:S1_0, m: { [k: string]:E1; }): S5_1[];
+by1(key:S1_0, m: { [k: string]:E1; }, callback?: (data: S5_1[])=>void): JQueryXHR;
+by4(key:S4_0, m: { [k: string]:E4; }): S5_1[];
+by4(key:S4_0, m: { [k: string]:E4; }, callback?: (data: S5_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
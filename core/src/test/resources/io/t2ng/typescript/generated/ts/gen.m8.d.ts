@@ -0,0 +1,68 @@
+declare module 'corpus/gen.m8' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+import { S1_0 } from 'corpus/gen.m1';
+import { E1 } from 'corpus/gen.m1';
+import { S6_0 } from 'corpus/gen.m6';
+import { E6 } from 'corpus/gen.m6';
+export enum E8 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S8_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+ref2:S6_0;
+es2:E6[];
+kind: E8;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; ref2:S6_0; es2:E6[]; kind: E8; });
+}
+export class S8_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+ref2:S6_0;
+es2:E6[];
+kind: E8;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; ref2:S6_0; es2:E6[]; kind: E8; });
+}
+export class S8_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S1_0;
+es1:E1[];
+ref2:S6_0;
+es2:E6[];
+kind: E8;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S1_0; es1:E1[]; ref2:S6_0; es2:E6[]; kind: E8; });
+}
+class X8 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc8Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S8_0;
+get(id: number, callback?: (data: S8_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S8_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S8_1[])=>void): JQueryXHR;
+by1(key:S1_0, m: { [k: string]:E1; }): S8_1[];
+by1(key:S1_0, m: { [k: string]:E1; }, callback?: (data: S8_1[])=>void): JQueryXHR;
+by6(key:S6_0, m: { [k: string]:E6; }): S8_1[];
+by6(key:S6_0, m: { [k: string]:E6; }, callback?: (data: S8_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
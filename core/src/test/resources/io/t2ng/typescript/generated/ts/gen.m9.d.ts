@@ -0,0 +1,68 @@
+declare module 'corpus/gen.m9' {
+import Thrift from 'thrift/Thrift';
+import { S0_0 } from 'corpus/gen.m0';
+import { E0 } from 'corpus/gen.m0';
+import { S3_0 } from 'corpus/gen.m3';
+import { E3 } from 'corpus/gen.m3';
+import { S6_0 } from 'corpus/gen.m6';
+import { E6 } from 'corpus/gen.m6';
+export enum E9 {
+A = 0,
+B = 4,
+C = 5,
+}
+export class S9_0 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S3_0;
+es1:E3[];
+ref2:S6_0;
+es2:E6[];
+kind: E9;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S3_0; es1:E3[]; ref2:S6_0; es2:E6[]; kind: E9; });
+}
+export class S9_1 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S3_0;
+es1:E3[];
+ref2:S6_0;
+es2:E6[];
+kind: E9;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S3_0; es1:E3[]; ref2:S6_0; es2:E6[]; kind: E9; });
+}
+export class S9_2 {
+id: number;
+name: string;
+ref0:S0_0;
+es0:E0[];
+ref1:S3_0;
+es1:E3[];
+ref2:S6_0;
+es2:E6[];
+kind: E9;
+constructor(args?: { id: number; name: string; ref0:S0_0; es0:E0[]; ref1:S3_0; es1:E3[]; ref2:S6_0; es2:E6[]; kind: E9; });
+}
+class X9 extends Thrift.TException {
+message: string;
+constructor(args?: { message: string; });
+}
+export class Svc9Client {
+input: Thrift.TJSONProtocol;
+output: Thrift.TJSONProtocol;
+seqid: number;
+constructor(input: Thrift.TJSONProtocol, output?: Thrift.TJSONProtocol);
+get(id: number): S9_0;
+get(id: number, callback?: (data: S9_0)=>void): JQueryXHR;
+by0(key:S0_0, m: { [k: string]:E0; }): S9_1[];
+by0(key:S0_0, m: { [k: string]:E0; }, callback?: (data: S9_1[])=>void): JQueryXHR;
+by3(key:S3_0, m: { [k: string]:E3; }): S9_1[];
+by3(key:S3_0, m: { [k: string]:E3; }, callback?: (data: S9_1[])=>void): JQueryXHR;
+by6(key:S6_0, m: { [k: string]:E6; }): S9_1[];
+by6(key:S6_0, m: { [k: string]:E6; }, callback?: (data: S9_1[])=>void): JQueryXHR;
+}
+}
\ No newline at end of file
@@ -0,0 +1,285 @@
+package io.t2ng.maven;
+
+import io.t2ng.GenerationException;
+import io.t2ng.Generator;
+import io.t2ng.GeneratorConfig;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+
+/**
+ * Generates Java, JavaScript and TypeScript sources from Thrift files
+ * within Maven JVM. Generation is skipped when Thrift files,
+ * configuration, Thrift compiler version and generated sources are the
+ * same as after the previous successful one
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public final class GenerateMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  @Parameter(defaultValue = "${mojoExecution}", readonly = true, required = true)
+  private MojoExecution execution;
+
+  @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+  private PluginDescriptor plugin;
+
+  /**
+   * Prefix of generated module names
+   */
+  @Parameter(property = "t2ng.projectName", required = true)
+  private String projectName;
+
+  /**
+   * Directory with Thrift files
+   */
+  @Parameter(property = "t2ng.inputDirectory", defaultValue = "${project.basedir}/src/main/thrift")
+  private File inputDirectory;
+
+  /**
+   * Directory for generated sources
+   */
+  @Parameter(property = "t2ng.outputDirectory", defaultValue = "${project.build.directory}/generated-sources/t2ng")
+  private File outputDirectory;
+
+  /**
+   * Whether JavaScript modules are merged into {@code js/all.js}
+   */
+  @Parameter(property = "t2ng.mergeJsFiles", defaultValue = "false")
+  private boolean mergeJsFiles;
+
+  /**
+   * Whether JavaScript modules are ES modules exporting every definition by its name
+   */
+  @Parameter(property = "t2ng.esModules", defaultValue = "false")
+  private boolean esModules;
+
+  /**
+   * Whether clients of all services share single transport by multiplexed
+   * protocol, with processors registered in single multiplexed processor
+   */
+  @Parameter(property = "t2ng.multiplex", defaultValue = "false")
+  private boolean multiplex;
+
+  /**
+   * Whether Angular services wrapping clients are generated into ts/
+   */
+  @Parameter(property = "t2ng.angularServices", defaultValue = "false")
+  private boolean angularServices;
+
+  /**
+   * Thrift compiler, either a name looked up in PATH or a path
+   */
+  @Parameter(property = "t2ng.thrift", defaultValue = "thrift")
+  private String thriftExecutable;
+
+  /**
+   * Seconds single run of Thrift compiler may take
+   */
+  @Parameter(property = "t2ng.thriftTimeout", defaultValue = "300")
+  private long thriftTimeout;
+
+  /**
+   * Whether TypeScript declarations are emitted from parsed IDL
+   */
+  @Parameter(property = "t2ng.emitTypeScript", defaultValue = "false")
+  private boolean emitTypeScript;
+
+  /**
+   * Whether only TypeScript declarations are generated
+   */
+  @Parameter(property = "t2ng.typeScriptOnly", defaultValue = "false")
+  private boolean typeScriptOnly;
+
+  /**
+   * Whether only Thrift files changed since previous generation are regenerated
+   */
+  @Parameter(property = "t2ng.incremental", defaultValue = "false")
+  private boolean incremental;
+
+  /**
+   * Number of files compiled concurrently, defaults to number of cores
+   */
+  @Parameter(property = "t2ng.workers")
+  private Integer workers;
+
+  /**
+   * Directory of compile cache shared by builds, e.g. of several projects, no cache unless set
+   */
+  @Parameter(property = "t2ng.cacheDirectory")
+  private File cacheDirectory;
+
+  /**
+   * Megabytes compile cache is kept within
+   */
+  @Parameter(property = "t2ng.cacheSize", defaultValue = "1024")
+  private long cacheSize;
+
+  /**
+   * Whether generated Java sources are added to compile source roots
+   */
+  @Parameter(property = "t2ng.addJavaSources", defaultValue = "true")
+  private boolean addJavaSources;
+
+  @Parameter(property = "t2ng.skip", defaultValue = "false")
+  private boolean skip;
+
+  /**
+   * Directory to keep fingerprints of previous generations in
+   */
+  @Parameter(defaultValue = "${project.build.directory}/t2ng-maven-plugin", readonly = true)
+  private File stateDirectory;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      getLog().info("generation skipped");
+      return;
+    }
+    if (!inputDirectory.isDirectory()) {
+      throw new MojoFailureException(format("input directory %s doesn't exist", inputDirectory));
+    }
+    GeneratorConfig.Builder config = GeneratorConfig.builder()
+      .projectName(projectName)
+      .inputDir(inputDirectory.getAbsolutePath())
+      .generatedSourceDir(outputDirectory.getAbsolutePath())
+      .mergeJsFiles(mergeJsFiles)
+      .esModules(esModules)
+      .multiplex(multiplex)
+      .angularServices(angularServices)
+      .thriftExecutable(thriftExecutable)
+      .thriftTimeout(thriftTimeout, TimeUnit.SECONDS)
+      .emitTypeScript(emitTypeScript)
+      .typeScriptOnly(typeScriptOnly)
+      .incremental(incremental)
+      .log(getLog()::info, getLog()::warn);
+    if (workers != null) {
+      config.workers(workers);
+    }
+    if (cacheDirectory != null) {
+      config.cacheDir(cacheDirectory.getAbsolutePath()).cacheSize(cacheSize * 1024 * 1024);
+    }
+    Generator generator;
+    try {
+      generator = new Generator(config.build());
+    } catch (IllegalArgumentException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+    Path stamp = stateDirectory.toPath().resolve(format("%s.stamp", execution.getExecutionId()));
+    try {
+      String fingerprint = fingerprint(generator.thriftVersion().orElse(""));
+      if (Files.exists(stamp)
+        && new String(Files.readAllBytes(stamp), StandardCharsets.UTF_8).equals(stamp(fingerprint))) {
+        getLog().info(format("sources in %s are up to date", outputDirectory));
+      } else {
+        Files.deleteIfExists(stamp);
+        generator.generate();
+        Files.createDirectories(stamp.getParent());
+        Files.write(stamp, stamp(fingerprint).getBytes(StandardCharsets.UTF_8));
+      }
+    } catch (GenerationException e) {
+      throw new MojoFailureException(format("can't generate sources: %s", e.getMessage()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("generation interrupted", e);
+    } catch (IOException e) {
+      throw new MojoExecutionException(format("can't check whether sources in %s are up to date", outputDirectory), e);
+    }
+    if (addJavaSources && !typeScriptOnly) {
+      project.addCompileSourceRoot(new File(outputDirectory, "java").getAbsolutePath());
+    }
+  }
+
+  /**
+   * @return fingerprint of inputs followed by SHA-256 of every file of
+   * output directory, so deleted or edited outputs are generated again
+   */
+  String stamp(String fingerprint) throws IOException {
+    MessageDigest digest = sha256();
+    if (outputDirectory.isDirectory()) {
+      updateWithFiles(digest, outputDirectory.toPath());
+    }
+    return format("%s%n%s", fingerprint, hex(digest));
+  }
+
+  /**
+   * @return SHA-256 of the configuration, plugin version, Thrift compiler
+   * version and path and content of every file of input directory
+   */
+  String fingerprint(String thriftVersion) throws IOException {
+    MessageDigest digest = sha256();
+    update(digest, format(
+      "%s|%s|%s|%s|%s|%s|%s|%s|%s|%s|%d|%s|%s|%s|%s",
+      plugin.getVersion(),
+      projectName,
+      inputDirectory.getAbsolutePath(),
+      outputDirectory.getAbsolutePath(),
+      mergeJsFiles,
+      esModules,
+      multiplex,
+      angularServices,
+      thriftExecutable,
+      thriftVersion,
+      thriftTimeout,
+      emitTypeScript,
+      typeScriptOnly,
+      incremental,
+      workers
+    ));
+    updateWithFiles(digest, inputDirectory.toPath());
+    return hex(digest);
+  }
+
+  private static void updateWithFiles(MessageDigest digest, Path root) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(root)) {
+      files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      update(digest, root.relativize(file).toString());
+      digest.update(Files.readAllBytes(file));
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hex(MessageDigest digest) {
+    StringBuilder hash = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hash.append(format("%02x", b));
+    }
+    return hash.toString();
+  }
+
+  private static void update(MessageDigest digest, String s) {
+    digest.update(s.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+}
@@ -0,0 +1,109 @@
+package io.t2ng.maven;
+
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GenerateMojoTest {
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final GenerateMojo mojo = new GenerateMojo();
+  private final PluginDescriptor plugin = new PluginDescriptor();
+  private Path input;
+  private Path output;
+
+  @Before
+  public void configure() throws Exception {
+    input = temp.newFolder("thrift").toPath();
+    output = temp.newFolder("generated").toPath();
+    write(input.resolve("app/users.thrift"), "namespace js app.users");
+    write(output.resolve("ts/app.users.d.ts"), "declare module 'app/app.users' {}");
+    plugin.setVersion("1.0.0");
+    set("plugin", plugin);
+    set("projectName", "app");
+    set("inputDirectory", input.toFile());
+    set("outputDirectory", output.toFile());
+    set("thriftExecutable", "thrift");
+    set("thriftTimeout", 300L);
+  }
+
+  @Test
+  public void fingerprintIsStable() throws Exception {
+    assertEquals(mojo.fingerprint("0.11.0"), mojo.fingerprint("0.11.0"));
+    assertEquals(mojo.stamp(mojo.fingerprint("0.11.0")), mojo.stamp(mojo.fingerprint("0.11.0")));
+  }
+
+  @Test
+  public void fingerprintChangesWithConfiguration() throws Exception {
+    String fingerprint = mojo.fingerprint("0.11.0");
+    set("esModules", true);
+    assertNotEquals(fingerprint, mojo.fingerprint("0.11.0"));
+    set("esModules", false);
+    set("workers", 2);
+    assertNotEquals(fingerprint, mojo.fingerprint("0.11.0"));
+    set("workers", null);
+    set("outputDirectory", temp.newFolder("other").getAbsoluteFile());
+    assertNotEquals(fingerprint, mojo.fingerprint("0.11.0"));
+    set("outputDirectory", output.toFile());
+    assertEquals(fingerprint, mojo.fingerprint("0.11.0"));
+  }
+
+  @Test
+  public void fingerprintChangesWithVersions() throws Exception {
+    String fingerprint = mojo.fingerprint("0.11.0");
+    assertNotEquals(fingerprint, mojo.fingerprint("0.12.0"));
+    plugin.setVersion("1.0.1");
+    assertNotEquals(fingerprint, mojo.fingerprint("0.11.0"));
+  }
+
+  @Test
+  public void fingerprintChangesWithInputs() throws Exception {
+    String fingerprint = mojo.fingerprint("0.11.0");
+    write(input.resolve("app/users.thrift"), "namespace js app.accounts");
+    String edited = mojo.fingerprint("0.11.0");
+    assertNotEquals(fingerprint, edited);
+    Files.move(input.resolve("app/users.thrift"), input.resolve("app/accounts.thrift"));
+    String renamed = mojo.fingerprint("0.11.0");
+    assertNotEquals(edited, renamed);
+    write(input.resolve("app/orders.thrift"), "namespace js app.orders");
+    assertNotEquals(renamed, mojo.fingerprint("0.11.0"));
+  }
+
+  @Test
+  public void stampChangesWithOutputs() throws Exception {
+    String fingerprint = mojo.fingerprint("0.11.0");
+    String stamp = mojo.stamp(fingerprint);
+    assertTrue(stamp, stamp.startsWith(fingerprint));
+    write(output.resolve("ts/app.users.d.ts"), "declare module 'app/app.users' { }");
+    String edited = mojo.stamp(fingerprint);
+    assertNotEquals(stamp, edited);
+    Files.delete(output.resolve("ts/app.users.d.ts"));
+    assertNotEquals(edited, mojo.stamp(fingerprint));
+    assertEquals(fingerprint, mojo.fingerprint("0.11.0"));
+  }
+
+  private void set(String name, Object value) throws ReflectiveOperationException {
+    Field field = GenerateMojo.class.getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(mojo, value);
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+}